@@ -0,0 +1,59 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.dto.SpotAvailabilityRequestDto;
+import com.gazi.ParkUs.dto.SpotAvailabilityResponseDto;
+import com.gazi.ParkUs.services.SpotAvailabilityService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailabilityBenchmark {
+
+    private static final int FREE_SLOTS = 500;
+
+    private BenchmarkContext ctx;
+    private SpotAvailabilityService availabilityService;
+    private LocalDateTime newSlotsFrom;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new BenchmarkContext();
+        availabilityService = ctx.bean(SpotAvailabilityService.class);
+
+        // Listed slots sit in the first weeks; created slots start a year out so they never collide
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withNano(0);
+        ctx.seedSlots(tomorrow, FREE_SLOTS);
+        newSlotsFrom = tomorrow.plusYears(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public SpotAvailabilityResponseDto createAvailability() {
+        LocalDateTime start = newSlotsFrom.plusHours(nextSlot.getAndIncrement());
+
+        SpotAvailabilityRequestDto dto = new SpotAvailabilityRequestDto();
+        dto.setSpotId(ctx.spot.getSpotId());
+        dto.setStartTime(start);
+        dto.setEndTime(start.plusHours(1));
+        return availabilityService.createAvailability(dto);
+    }
+
+    @Benchmark
+    public List<SpotAvailabilityResponseDto> getAvailableSlotsBySpot() {
+        return availabilityService.getAvailableSlotsBySpot(ctx.spot.getSpotId(), null, null, FREE_SLOTS);
+    }
+}
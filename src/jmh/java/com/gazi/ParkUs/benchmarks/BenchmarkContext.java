@@ -0,0 +1,106 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.ParkUsApplication;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import com.gazi.ParkUs.repositories.UserRepository;
+import com.gazi.ParkUs.security.AuthenticatedUser;
+import com.gazi.ParkUs.security.JwtUtil;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against the H2 (PostgreSQL mode) test profile and
+ * seeds one owner with one spot. The owner is installed as the global
+ * principal so services see an authenticated caller on every JMH thread;
+ * {@link #overHttp} skips that and hands out a JWT for real HTTP calls instead.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    final ConfigurableApplicationContext context;
+    final RegularUser owner;
+    final ParkingSpot spot;
+
+    BenchmarkContext(String... extraProperties) {
+        this(true, extraProperties);
+    }
+
+    /** Context driven through the embedded server; requests authenticate with {@link #bearerToken()}. */
+    static BenchmarkContext overHttp(String... extraProperties) {
+        return new BenchmarkContext(false, extraProperties);
+    }
+
+    private BenchmarkContext(boolean globalPrincipal, String[] extraProperties) {
+        context = new SpringApplicationBuilder(ParkUsApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN"
+                )
+                .properties(extraProperties)
+                .run();
+
+        owner = context.getBean(UserRepository.class)
+                .save(new RegularUser("Bench", "Owner", "bench-owner@example.com", "hash"));
+
+        ParkingSpot seeded = new ParkingSpot();
+        seeded.setOwner(owner);
+        seeded.setTitle("Benchmark Spot");
+        seeded.setLatitude(new BigDecimal("41.036900"));
+        seeded.setLongitude(new BigDecimal("28.985000"));
+        seeded.setSlotType("regular");
+        seeded.setPricePerHour(new BigDecimal("10.00"));
+        spot = context.getBean(ParkingSpotRepository.class).save(seeded);
+
+        if (!globalPrincipal) {
+            return;
+        }
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        AuthenticatedUser principal = new AuthenticatedUser(owner.getUserId(), owner.getEmail(), "", owner.getRole());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    String bearerToken() {
+        return "Bearer " + bean(JwtUtil.class).generateToken(owner);
+    }
+
+    /** Inserts {@code count} consecutive one-hour free slots starting at {@code from}. */
+    List<SpotAvailability> seedSlots(LocalDateTime from, int count) {
+        List<SpotAvailability> slots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SpotAvailability availability = new SpotAvailability();
+            availability.setSpot(spot);
+            availability.setStartTime(from.plusHours(i));
+            availability.setEndTime(from.plusHours(i + 1));
+            availability.setIsBooked(false);
+            slots.add(availability);
+        }
+        return bean(SpotAvailabilityRepository.class).saveAll(slots);
+    }
+
+    @Override
+    public void close() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+}
@@ -0,0 +1,52 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.dto.BookingRequestDto;
+import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.services.BookingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingBenchmark {
+
+    private BenchmarkContext ctx;
+    private BookingService bookingService;
+    private LocalDateTime nextStart;
+    private Long availabilityId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new BenchmarkContext();
+        bookingService = ctx.bean(BookingService.class);
+        nextStart = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    // createBooking takes milliseconds, so a per-invocation fixture is well above JMH's timer noise
+    @Setup(Level.Invocation)
+    public void freshSlot() {
+        SpotAvailability slot = ctx.seedSlots(nextStart, 1).get(0);
+        availabilityId = slot.getAvailabilityId();
+        nextStart = nextStart.plusHours(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public BookingResponseDto createBooking() {
+        BookingRequestDto dto = new BookingRequestDto();
+        dto.setAvailabilityId(availabilityId);
+        dto.setRenterId(ctx.owner.getUserId());
+        return bookingService.createBooking(dto);
+    }
+}
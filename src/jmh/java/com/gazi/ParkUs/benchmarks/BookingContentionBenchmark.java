@@ -0,0 +1,73 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.dto.BookingRequestDto;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.exceptions.BookingConflictException;
+import com.gazi.ParkUs.services.BookingService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many threads racing for the same slots, once per booking.locking-mode.
+ * Every {@link #CONTENDERS} consecutive attempts target one slot, so exactly
+ * one of them wins and the rest end in {@link BookingConflictException}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(BookingContentionBenchmark.CONTENDERS)
+@State(Scope.Benchmark)
+public class BookingContentionBenchmark {
+
+    static final int CONTENDERS = 8;
+    private static final int SLOTS_PER_ITERATION = 20_000;
+
+    @Param({"pessimistic", "optimistic"})
+    private String lockingMode;
+
+    private BenchmarkContext ctx;
+    private BookingService bookingService;
+    private LocalDateTime nextStart;
+    private List<SpotAvailability> slots;
+    private final AtomicLong attempts = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new BenchmarkContext("booking.locking-mode=" + lockingMode);
+        bookingService = ctx.bean(BookingService.class);
+        nextStart = LocalDateTime.now().plusDays(1).withNano(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void seedSlots() {
+        slots = ctx.seedSlots(nextStart, SLOTS_PER_ITERATION);
+        nextStart = nextStart.plusHours(SLOTS_PER_ITERATION);
+        attempts.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public void bookContendedSlot(Blackhole bh) {
+        int slot = (int) (attempts.getAndIncrement() / CONTENDERS) % SLOTS_PER_ITERATION;
+
+        BookingRequestDto dto = new BookingRequestDto();
+        dto.setAvailabilityId(slots.get(slot).getAvailabilityId());
+        dto.setRenterId(ctx.owner.getUserId());
+        try {
+            bh.consume(bookingService.createBooking(dto));
+        } catch (BookingConflictException e) {
+            bh.consume(e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.dto.ParkingSpotPageDto;
+import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
+import com.gazi.ParkUs.entities.Booking;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.services.BookingService;
+import com.gazi.ParkUs.services.BookingServiceImpl;
+import com.gazi.ParkUs.services.DtoMappers;
+import com.gazi.ParkUs.services.ParkingSpotService;
+import com.gazi.ParkUs.services.ParkingSpotServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.AopTestUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the services' entity-to-DTO mappers ({@code ParkingSpotServiceImpl.toResponse},
+ * {@code BookingServiceImpl.toDto}) over a typical page of loaded entities, and of
+ * serializing the mapped page. The mappers run on the unproxied service beans, so
+ * no transaction or query is part of the measurement.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    @Param({"20", "50"})
+    private int pageSize;
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+
+    private BenchmarkContext ctx;
+    private ParkingSpotServiceImpl spotService;
+    private BookingServiceImpl bookingService;
+
+    private List<ParkingSpot> spots;
+    private List<Booking> bookings;
+    private ParkingSpotPageDto spotPage;
+    private List<BookingResponseDto> bookingPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = new BenchmarkContext();
+        spotService = AopTestUtils.getUltimateTargetObject(ctx.bean(ParkingSpotService.class));
+        bookingService = AopTestUtils.getUltimateTargetObject(ctx.bean(BookingService.class));
+
+        spots = buildSpots();
+        bookings = buildBookings();
+        spotPage = new ParkingSpotPageDto(mapSpots(), "MjAyNS0xMi0yMlQxMDowMDowMHw0Mg");
+        bookingPage = mapBookings();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<ParkingSpotResponseDto> mapSpots() {
+        List<ParkingSpotResponseDto> page = new ArrayList<>(spots.size());
+        for (ParkingSpot spot : spots) {
+            page.add(DtoMappers.toResponse(spotService, spot));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<BookingResponseDto> mapBookings() {
+        List<BookingResponseDto> page = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            page.add(DtoMappers.toDto(bookingService, booking));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public byte[] serializeSpotPage() {
+        return mapper.writeValueAsBytes(spotPage);
+    }
+
+    @Benchmark
+    public byte[] serializeBookings() {
+        return mapper.writeValueAsBytes(bookingPage);
+    }
+
+    // ---------- helpers ----------
+
+    /** Detached copies of the seeded spot with distinct ids, as a page query would load them. */
+    private List<ParkingSpot> buildSpots() {
+        List<ParkingSpot> page = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            ParkingSpot spot = new ParkingSpot();
+            spot.setSpotId(ctx.spot.getSpotId() + i);
+            spot.setOwner(ctx.owner);
+            spot.setTitle("Spot " + i);
+            spot.setDescription("Covered, near the metro");
+            spot.setLocation("Kadikoy");
+            spot.setLatitude(new BigDecimal("40.990000"));
+            spot.setLongitude(new BigDecimal("29.030000"));
+            spot.setSlotType("regular");
+            spot.setPricePerHour(new BigDecimal("12.50"));
+            page.add(spot);
+        }
+        return page;
+    }
+
+    private List<Booking> buildBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        List<Booking> page = new ArrayList<>(pageSize);
+        for (long i = 0; i < pageSize; i++) {
+            SpotAvailability availability = new SpotAvailability();
+            availability.setAvailabilityId(i);
+            availability.setSpot(ctx.spot);
+            availability.setStartTime(start.plusHours(i));
+            availability.setEndTime(start.plusHours(i + 2));
+            availability.setIsBooked(true);
+
+            Booking booking = new Booking();
+            booking.setBookingId(i);
+            booking.setSpot(ctx.spot);
+            booking.setRenter(ctx.owner);
+            booking.setAvailability(availability);
+            booking.setStartTime(availability.getStartTime());
+            booking.setEndTime(availability.getEndTime());
+            booking.setStatus("confirmed");
+            booking.setTotalAmount(new BigDecimal("25.00"));
+            page.add(booking);
+        }
+        return page;
+    }
+}
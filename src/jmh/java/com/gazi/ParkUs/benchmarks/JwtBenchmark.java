@@ -0,0 +1,70 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.security.JwtUtil;
+import com.gazi.ParkUs.security.ParsedToken;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final int DISTINCT_TOKENS = 1024;
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtil cachingJwt;
+    private JwtUtil uncachedJwt;
+    private RegularUser user;
+    private String token;
+    private String[] tokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cachingJwt = jwtUtil(10_000);
+        uncachedJwt = jwtUtil(0);
+
+        user = new RegularUser("Bench", "User", "bench-user@example.com", "hash");
+        ReflectionTestUtils.setField(user, "userId", 42L);
+
+        token = cachingJwt.generateToken(user);
+        tokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            tokens[i] = cachingJwt.generateToken("user" + i + "@example.com", "ROLE_USER");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cachingJwt.generateToken(user);
+    }
+
+    /** Same bearer token on every request: served from the verified-token cache. */
+    @Benchmark
+    public ParsedToken parseRepeatedToken() {
+        return cachingJwt.parse(token);
+    }
+
+    /** Every call verifies the HMAC signature. */
+    @Benchmark
+    public ParsedToken parseUncached() {
+        next = (next + 1) % DISTINCT_TOKENS;
+        return uncachedJwt.parse(tokens[next]);
+    }
+
+    private static JwtUtil jwtUtil(int cacheMaxSize) {
+        JwtUtil jwt = new JwtUtil();
+        ReflectionTestUtils.setField(jwt, "secret", SECRET);
+        ReflectionTestUtils.setField(jwt, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwt, "cacheMaxSize", cacheMaxSize);
+        jwt.validateSecret();
+        return jwt;
+    }
+}
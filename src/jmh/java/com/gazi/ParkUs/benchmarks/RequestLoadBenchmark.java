@@ -0,0 +1,108 @@
+package com.gazi.ParkUs.benchmarks;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * End-to-end HTTP load on the booking and search endpoints, once on the
+ * Tomcat platform-thread pool and once on virtual threads. Many more client
+ * threads than pool connections keep the server saturated; SampleTime reports
+ * the p99/p99.9 tail next to throughput.
+ *
+ * Responses other than 2xx, 409 (lost a race) and 503 (shed by the limiter)
+ * fail the run.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(RequestLoadBenchmark.CLIENTS)
+@State(Scope.Benchmark)
+public class RequestLoadBenchmark {
+
+    static final int CLIENTS = 128;
+    private static final int SLOTS_PER_ITERATION = 50_000;
+
+    @Param({"platform", "virtual"})
+    private String threadMode;
+
+    private BenchmarkContext ctx;
+    private HttpClient client;
+    private String baseUrl;
+    private String token;
+    private String searchQuery;
+    private LocalDateTime nextStart;
+    private List<SpotAvailability> slots;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkContext.overHttp(
+                "spring.threads.virtual.enabled=" + "virtual".equals(threadMode),
+                "server.tomcat.threads.max=200",
+                "spring.datasource.hikari.maximum-pool-size=20"
+        );
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        baseUrl = ctx.baseUrl();
+        token = ctx.bearerToken();
+        nextStart = LocalDateTime.now().plusDays(1).withNano(0);
+
+        LocalDateTime from = nextStart.plusYears(10);
+        searchQuery = "/api/spots/search?lat=41.0369&lng=28.985&radiusKm=5"
+                + "&from=" + from + "&to=" + from.plusHours(1);
+        ctx.seedSlots(from, 1); // one free window for the search to find
+    }
+
+    @Setup(Level.Iteration)
+    public void seedSlots() {
+        slots = ctx.seedSlots(nextStart, SLOTS_PER_ITERATION);
+        nextStart = nextStart.plusHours(SLOTS_PER_ITERATION);
+        nextSlot.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int createBooking() throws Exception {
+        SpotAvailability slot = slots.get(nextSlot.getAndIncrement() % SLOTS_PER_ITERATION);
+        String body = "{\"availabilityId\":" + slot.getAvailabilityId()
+                + ",\"renterId\":" + ctx.owner.getUserId() + "}";
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/bookings"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    @Benchmark
+    public int searchFreeSpots() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + searchQuery)).GET());
+    }
+
+    private int send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<Void> response = client.send(
+                request.header("Authorization", token).timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.discarding());
+        int status = response.statusCode();
+        if (status / 100 != 2 && status != 409 && status != 503) {
+            throw new IllegalStateException("Unexpected status " + status);
+        }
+        return status;
+    }
+}
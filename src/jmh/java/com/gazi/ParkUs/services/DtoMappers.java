@@ -0,0 +1,24 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
+import com.gazi.ParkUs.entities.Booking;
+import com.gazi.ParkUs.entities.ParkingSpot;
+
+/**
+ * Exposes the services' package-private entity-to-DTO mappers to the benchmarks package.
+ * Callers pass the unproxied service instances.
+ */
+public final class DtoMappers {
+
+    private DtoMappers() {
+    }
+
+    public static ParkingSpotResponseDto toResponse(ParkingSpotServiceImpl service, ParkingSpot spot) {
+        return service.toResponse(spot);
+    }
+
+    public static BookingResponseDto toDto(BookingServiceImpl service, Booking booking) {
+        return service.toDto(booking);
+    }
+}
@@ -0,0 +1,8 @@
+package com.gazi.ParkUs.exceptions;
+
+// Booking a slot that has already started; still a 400, but counted separately
+public class PastSlotException extends InvalidRequestException {
+    public PastSlotException(String message) {
+        super(message);
+    }
+}
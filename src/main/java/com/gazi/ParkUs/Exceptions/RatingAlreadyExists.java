@@ -0,0 +1,7 @@
+package com.gazi.ParkUs.exceptions;
+
+public class RatingAlreadyExists extends RuntimeException {
+    public RatingAlreadyExists(String message) {
+        super(message);
+    }
+}
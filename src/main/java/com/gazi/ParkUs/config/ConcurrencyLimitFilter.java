@@ -0,0 +1,148 @@
+package com.gazi.ParkUs.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of requests in flight. With virtual threads Tomcat no longer
+ * bounds concurrency, so without this every request would queue on the
+ * connection pool and hold its row locks and memory while it waits. Requests
+ * beyond the limit wait up to {@code request.limit.queue-timeout} ms for a
+ * permit and are then rejected with 503. An async request (the streamed spot
+ * list and booking log export) keeps its permit until the async request
+ * completes, since it holds a connection and a database cursor while it streams.
+ *
+ * {@code request.limit.max-concurrent=0} sizes the limit from the pool
+ * (twice the pool size) in virtual-thread mode and disables it otherwise,
+ * where the Tomcat thread pool already does the job.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final int limit;
+    private final long queueTimeoutMs;
+    private final Semaphore permits;
+
+    private final AtomicLong admitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimitFilter(
+            @Value("${request.limit.max-concurrent:0}") int maxConcurrent,
+            @Value("${request.limit.queue-timeout:2000}") long queueTimeoutMs,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize
+    ) {
+        this.limit = maxConcurrent > 0 ? maxConcurrent : (virtualThreads ? poolSize * 2 : 0);
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.permits = limit > 0 ? new Semaphore(limit, true) : null;
+    }
+
+    public record Stats(int limit, int inFlight, int waiting, long admitted, long rejected) {}
+
+    // Health checks and scrapes must keep working while the app is shedding load
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        if (permits == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.incrementAndGet();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "Server busy, retry shortly");
+            return;
+        }
+
+        admitted.incrementAndGet();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            if (async) {
+                // Async dispatches skip this filter, so the listener is the only release
+                request.getAsyncContext().addListener(new PermitRelease());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    /** Returns the permit once, when the async request completes, times out or fails. */
+    private final class PermitRelease implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are dropped when async restarts; stay registered until the final completion
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    public Stats stats() {
+        if (permits == null) {
+            return new Stats(0, 0, 0, admitted.get(), rejected.get());
+        }
+        return new Stats(
+                limit,
+                limit - permits.availablePermits(),
+                permits.getQueueLength(),
+                admitted.get(),
+                rejected.get()
+        );
+    }
+}
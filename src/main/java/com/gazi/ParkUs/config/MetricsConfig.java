@@ -0,0 +1,106 @@
+package com.gazi.ParkUs.config;
+
+import com.gazi.ParkUs.security.JwtUtil;
+import com.gazi.ParkUs.services.BookingExpiryScheduler;
+import com.gazi.ParkUs.services.BookingLogWriter;
+import com.gazi.ParkUs.services.SlotHoldRegistry;
+import com.gazi.ParkUs.services.SpotResponseCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Publishes the counters the in-process components already keep (the same
+ * figures as /admin/stats/*) as Micrometer meters, read at scrape time.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder bookingLogWriterMetrics(BookingLogWriter writer) {
+        return registry -> {
+            Gauge.builder("parkus.booking_log.queue.depth", writer, w -> w.stats().queueDepth())
+                    .description("Booking log entries waiting to be flushed")
+                    .register(registry);
+            FunctionCounter.builder("parkus.booking_log.written", writer, w -> w.stats().written())
+                    .register(registry);
+            FunctionCounter.builder("parkus.booking_log.sync_writes", writer, w -> w.stats().syncWrites())
+                    .description("Entries written on the request thread because the queue was full")
+                    .register(registry);
+            FunctionCounter.builder("parkus.booking_log.failed_flushes", writer, w -> w.stats().failedFlushes())
+                    .register(registry);
+            FunctionCounter.builder("parkus.booking_log.rejected", writer, w -> w.stats().rejected())
+                    .description("Entries rejected because the retry overflow stayed full")
+                    .register(registry);
+            Gauge.builder("parkus.booking_log.awaiting_retry", writer, w -> w.stats().awaitingRetry())
+                    .description("Entries held back until a failed flush succeeds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(SpotResponseCache spotCache, JwtUtil jwtUtil) {
+        return registry -> {
+            FunctionCounter.builder("parkus.cache.requests", spotCache, c -> c.stats().hits())
+                    .tags("cache", "spot", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("parkus.cache.requests", spotCache, c -> c.stats().misses())
+                    .tags("cache", "spot", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("parkus.cache.evictions", spotCache, c -> c.stats().evictions())
+                    .tag("cache", "spot")
+                    .register(registry);
+            Gauge.builder("parkus.cache.size", spotCache, c -> c.stats().size())
+                    .tag("cache", "spot")
+                    .register(registry);
+            Gauge.builder("parkus.cache.size", jwtUtil, JwtUtil::cachedTokens)
+                    .tag("cache", "jwt")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder slotHoldMetrics(SlotHoldRegistry holds) {
+        return registry -> {
+            Gauge.builder("parkus.holds.active", holds, h -> h.stats().active())
+                    .register(registry);
+            FunctionCounter.builder("parkus.holds.expired", holds, h -> h.stats().expired())
+                    .description("Holds that lapsed without being booked or released")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder expiryMetrics(BookingExpiryScheduler expiry) {
+        return registry -> {
+            Gauge.builder("parkus.expiry.queued", expiry, e -> e.stats().queuedBookings())
+                    .tag("kind", "booking")
+                    .register(registry);
+            Gauge.builder("parkus.expiry.queued", expiry, e -> e.stats().queuedSlots())
+                    .tag("kind", "slot")
+                    .register(registry);
+            FunctionCounter.builder("parkus.expiry.applied", expiry, e -> e.stats().completed())
+                    .tag("kind", "booking")
+                    .register(registry);
+            FunctionCounter.builder("parkus.expiry.applied", expiry, e -> e.stats().closedSlots())
+                    .tag("kind", "slot")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder requestLimitMetrics(ConcurrencyLimitFilter limiter) {
+        return registry -> {
+            Gauge.builder("parkus.requests.in_flight", limiter, l -> l.stats().inFlight())
+                    .register(registry);
+            Gauge.builder("parkus.requests.waiting", limiter, l -> l.stats().waiting())
+                    .description("Requests queued for a concurrency permit")
+                    .register(registry);
+            FunctionCounter.builder("parkus.requests.rejected", limiter, l -> l.stats().rejected())
+                    .description("Requests shed with 503 by the concurrency limit")
+                    .register(registry);
+        };
+    }
+}
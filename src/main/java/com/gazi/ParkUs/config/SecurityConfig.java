@@ -22,6 +22,13 @@ import java.util.List;
 @Configuration
 public class SecurityConfig {
 
+    // Frontend origins (update with your frontend URL in production); shared with the WebSocket endpoint
+    static final List<String> ALLOWED_ORIGINS = List.of(
+            "http://localhost:3000",
+            "http://localhost:4200",
+            "http://localhost:5173"
+    );
+
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
@@ -42,12 +49,8 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         
-        // Allow specific origins (update with your frontend URL in production)
-        configuration.setAllowedOrigins(Arrays.asList(
-                "http://localhost:3000",
-                "http://localhost:4200",
-                "http://localhost:5173"
-        ));
+        // Allow specific origins
+        configuration.setAllowedOrigins(ALLOWED_ORIGINS);
         
         // Allow all HTTP methods
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
@@ -75,6 +78,11 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/register", "/auth/login", "/").permitAll()
+                        // WebSocket handshake; STOMP CONNECT carries the JWT (see WebSocketConfig)
+                        .requestMatchers("/ws/**").permitAll()
+                        // Health checks and Prometheus scrapes; restrict at the network level in production
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/admin/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                         .anyRequest().authenticated())
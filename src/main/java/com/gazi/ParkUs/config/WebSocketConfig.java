@@ -0,0 +1,106 @@
+package com.gazi.ParkUs.config;
+
+import com.gazi.ParkUs.security.JwtUtil;
+import com.gazi.ParkUs.security.ParsedToken;
+import com.gazi.ParkUs.services.CustomUserDetailsService;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+import java.util.regex.Pattern;
+
+/**
+ * STOMP over WebSocket at {@code /ws} for read-only availability pushes.
+ * The handshake is open; clients authenticate on CONNECT with an
+ * {@code Authorization: Bearer <token>} STOMP header and may only subscribe
+ * to the availability topics.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private static final Pattern ALLOWED_TOPICS =
+            Pattern.compile("^/topic/(spots/\\d+|tiles/\\d+-\\d+)/availability$");
+
+    private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+
+    public WebSocketConfig(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws")
+                .setAllowedOrigins(SecurityConfig.ALLOWED_ORIGINS.toArray(String[]::new));
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() == null) {
+                    return message;
+                }
+
+                switch (accessor.getCommand()) {
+                    case CONNECT -> accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+                    case SUBSCRIBE -> {
+                        if (accessor.getUser() == null) {
+                            throw new MessageDeliveryException("Not authenticated");
+                        }
+                        String destination = accessor.getDestination();
+                        if (destination == null || !ALLOWED_TOPICS.matcher(destination).matches()) {
+                            throw new MessageDeliveryException("Unknown destination");
+                        }
+                    }
+                    case SEND -> throw new MessageDeliveryException("This channel is read-only");
+                    default -> {
+                    }
+                }
+                return message;
+            }
+        });
+    }
+
+    // ---------- helpers ----------
+
+    private UsernamePasswordAuthenticationToken authenticate(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing token");
+        }
+        try {
+            ParsedToken token = jwtUtil.parse(authorizationHeader.substring(7));
+            UserDetails userDetails = userDetailsService.loadUserByUsername(token.subject());
+            if (!jwtUtil.validateToken(token, userDetails)) {
+                throw new MessageDeliveryException("Invalid token");
+            }
+            return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        } catch (MessageDeliveryException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.gazi.ParkUs.controller;
 
+import com.gazi.ParkUs.config.ConcurrencyLimitFilter;
 import com.gazi.ParkUs.dto.*;
-import com.gazi.ParkUs.entities.Booking;
 import com.gazi.ParkUs.entities.ParkingSpot;
 import com.gazi.ParkUs.entities.SpotAvailability;
 import com.gazi.ParkUs.entities.UserEntity;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
 import com.gazi.ParkUs.repositories.BookingRepository;
 import com.gazi.ParkUs.repositories.ParkingSpotRepository;
 import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
@@ -15,10 +16,21 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/admin")
@@ -32,6 +44,14 @@ public class AdminController {
 	private final ParkingSpotService parkingSpotService;
 	private final SpotAvailabilityService availabilityService;
 	private final AdminService adminService;
+	private final BookingLogWriter bookingLogWriter;
+	private final SpotResponseCache spotCache;
+	private final ConcurrencyLimitFilter concurrencyLimit;
+	private final SpotDailyRollups rollups;
+	private final BookingLogPartitionManager logPartitions;
+	private final SlotHoldRegistry slotHolds;
+	private final BookingExpiryScheduler expiry;
+	private final ObjectMapper objectMapper;
 
 	public AdminController(
 			UserRepository userRepo,
@@ -41,7 +61,15 @@ public class AdminController {
 			BookingService bookingService,
 			ParkingSpotService parkingSpotService,
 			SpotAvailabilityService availabilityService,
-			AdminService adminService
+			AdminService adminService,
+			BookingLogWriter bookingLogWriter,
+			SpotResponseCache spotCache,
+			ConcurrencyLimitFilter concurrencyLimit,
+			SpotDailyRollups rollups,
+			BookingLogPartitionManager logPartitions,
+			SlotHoldRegistry slotHolds,
+			BookingExpiryScheduler expiry,
+			ObjectMapper objectMapper
 	) {
 		this.userRepo = userRepo;
 		this.bookingRepo = bookingRepo;
@@ -51,6 +79,14 @@ public class AdminController {
 		this.parkingSpotService = parkingSpotService;
 		this.availabilityService = availabilityService;
 		this.adminService = adminService;
+		this.bookingLogWriter = bookingLogWriter;
+		this.spotCache = spotCache;
+		this.concurrencyLimit = concurrencyLimit;
+		this.rollups = rollups;
+		this.logPartitions = logPartitions;
+		this.slotHolds = slotHolds;
+		this.expiry = expiry;
+		this.objectMapper = objectMapper;
 	}
 
 	// ============ USER MANAGEMENT ============
@@ -101,9 +137,7 @@ public class AdminController {
 	public ResponseEntity<Page<BookingResponseDto>> listBookings(
 			@PageableDefault(size = 20, sort = "bookedAt", direction = Sort.Direction.DESC) Pageable pageable
 	) {
-		Page<BookingResponseDto> bookings = bookingRepo.findAll(pageable)
-				.map(this::toBookingDto);
-		return ResponseEntity.ok(bookings);
+		return ResponseEntity.ok(bookingRepo.findAllDtos(pageable));
 	}
 
 	@GetMapping("/bookings/{id}")
@@ -143,12 +177,7 @@ public class AdminController {
 
 	@GetMapping("/bookings/status/{status}")
 	public ResponseEntity<List<BookingResponseDto>> getBookingsByStatus(@PathVariable String status) {
-		return ResponseEntity.ok(
-				bookingRepo.findByStatus(status)
-						.stream()
-						.map(this::toBookingDto)
-						.toList()
-		);
+		return ResponseEntity.ok(bookingRepo.findDtosByStatus(status));
 	}
 
 	// ============ PARKING SPOT MANAGEMENT ============
@@ -228,19 +257,149 @@ public class AdminController {
 		return ResponseEntity.noContent().build();
 	}
 
+	// ============ BOOKING LOG EXPORT ============
+
+	// Streams straight from a database cursor to the response: memory stays flat for any range
+	@GetMapping("/booking-logs/export")
+	public ResponseEntity<StreamingResponseBody> exportBookingLogs(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) Long ownerId,
+			@RequestParam(required = false) Long spotId,
+			@RequestParam(defaultValue = "csv") String format,
+			@RequestParam(defaultValue = "false") boolean gzip
+	) {
+		boolean csv = switch (format.toLowerCase()) {
+			case "csv" -> true;
+			case "ndjson" -> false;
+			default -> throw new InvalidRequestException("format must be csv or ndjson");
+		};
+		// Checked before the body starts so errors still get a proper status
+		adminService.validateExportRange(from, to);
+
+		StreamingResponseBody body = out -> {
+			OutputStream target = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+			Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+			if (csv) {
+				writer.write(LOG_CSV_HEADER);
+			}
+			adminService.exportBookingLogs(from, to, ownerId, spotId, row -> {
+				try {
+					if (csv) {
+						writeCsvRow(writer, row);
+					} else {
+						writer.write(objectMapper.writeValueAsString(row));
+						writer.write('\n');
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			writer.flush();
+			if (target instanceof GZIPOutputStream gz) {
+				gz.finish();
+			}
+			out.flush();
+		};
+
+		String extension = (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+		MediaType type = gzip
+				? MediaType.parseMediaType("application/gzip")
+				: (csv ? MediaType.parseMediaType("text/csv;charset=UTF-8") : MediaType.APPLICATION_NDJSON);
+		return ResponseEntity.ok()
+				.contentType(type)
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"booking-logs" + extension + "\"")
+				.body(body);
+	}
+
+	// ============ DASHBOARD ROLLUPS ============
+	@PostMapping("/rollups/rebuild")
+	public ResponseEntity<Map<String, Object>> rebuildRollups(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+	) {
+		if (to.isBefore(from)) {
+			throw new InvalidRequestException("to must not be before from");
+		}
+		LocalDate retainedSince = logPartitions.retainedSince();
+		if (retainedSince != null && from.isBefore(retainedSince)) {
+			throw new InvalidRequestException("Booking logs before " + retainedSince + " have been dropped; cannot rebuild");
+		}
+		return ResponseEntity.ok(Map.of("from", from, "to", to, "rows", rollups.rebuild(from, to)));
+	}
+
+	// ============ DIAGNOSTICS ============
+
+	@GetMapping("/stats/booking-log")
+	public ResponseEntity<BookingLogWriter.Stats> bookingLogStats() {
+		return ResponseEntity.ok(bookingLogWriter.stats());
+	}
+
+	@GetMapping("/stats/booking-log/partitions")
+	public ResponseEntity<BookingLogPartitionManager.Stats> bookingLogPartitions() {
+		return ResponseEntity.ok(logPartitions.stats());
+	}
+
+	@GetMapping("/stats/spot-cache")
+	public ResponseEntity<SpotResponseCache.Stats> spotCacheStats() {
+		return ResponseEntity.ok(spotCache.stats());
+	}
+
+	@GetMapping("/stats/holds")
+	public ResponseEntity<SlotHoldRegistry.Stats> getHoldStats() {
+		return ResponseEntity.ok(slotHolds.stats());
+	}
+
+	@GetMapping("/stats/expiry")
+	public ResponseEntity<BookingExpiryScheduler.Stats> getExpiryStats() {
+		return ResponseEntity.ok(expiry.stats());
+	}
+
+	@GetMapping("/stats/request-limit")
+	public ResponseEntity<ConcurrencyLimitFilter.Stats> requestLimitStats() {
+		return ResponseEntity.ok(concurrencyLimit.stats());
+	}
+
 	// ============ HELPER METHODS ============
 
-	private BookingResponseDto toBookingDto(Booking booking) {
-		BookingResponseDto dto = new BookingResponseDto();
-		dto.setBookingId(booking.getBookingId());
-		dto.setSpotId(booking.getSpot().getSpotId());
-		dto.setRenterId(booking.getRenter().getUserId());
-		dto.setOwnerId(booking.getSpot().getOwner().getUserId());
-		dto.setStatus(booking.getStatus());
-		dto.setTotalAmount(booking.getTotalAmount());
-		dto.setStartTime(booking.getAvailability().getStartTime());
-		dto.setEndTime(booking.getAvailability().getEndTime());
-		return dto;
+	private static final String LOG_CSV_HEADER =
+			"log_id,booking_id,spot_id,owner_id,renter_id,start_time,end_time,duration_hours,total_amount,status,logged_at\n";
+
+	private static void writeCsvRow(Writer writer, BookingLogDTO row) throws IOException {
+		writer.write(String.valueOf(row.getLogId()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getBookingId()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getSpotId()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getOwnerId()));
+		writer.write(',');
+		writer.write(String.valueOf(row.getRenterId()));
+		writer.write(',');
+		writer.write(csvValue(row.getStartTime()));
+		writer.write(',');
+		writer.write(csvValue(row.getEndTime()));
+		writer.write(',');
+		writer.write(csvValue(row.getDurationHours()));
+		writer.write(',');
+		writer.write(csvValue(row.getTotalAmount()));
+		writer.write(',');
+		writer.write(csvValue(row.getStatus()));
+		writer.write(',');
+		writer.write(csvValue(row.getLoggedAt()));
+		writer.write('\n');
+	}
+
+	private static String csvValue(Object value) {
+		if (value == null) {
+			return "";
+		}
+		String text = value.toString();
+		if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			return text;
+		}
+		return '"' + text.replace("\"", "\"\"") + '"';
 	}
 
 	private ParkingSpotResponseDto toSpotDto(ParkingSpot spot) {
@@ -264,6 +423,7 @@ public class AdminController {
 		dto.setStartTime(availability.getStartTime());
 		dto.setEndTime(availability.getEndTime());
 		dto.setIsBooked(availability.getIsBooked());
+		dto.setHeldUntil(availability.isHeldAt(LocalDateTime.now()) ? availability.getHoldExpiresAt() : null);
 		return dto;
 	}
 }
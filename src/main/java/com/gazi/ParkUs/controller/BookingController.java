@@ -2,7 +2,9 @@ package com.gazi.ParkUs.controller;
 
 import com.gazi.ParkUs.dto.BookingRequestDto;
 import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.dto.WindowBookingRequestDto;
 import com.gazi.ParkUs.services.BookingServiceImpl;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +26,14 @@ public class BookingController {
         return ResponseEntity.ok(bookingServiceImpl.createBooking(dto));
     }
 
+    // CREATE one booking over a window covered by contiguous slots
+    @PostMapping("/window")
+    public ResponseEntity<BookingResponseDto> createWindowBooking(
+            @Valid @RequestBody WindowBookingRequestDto dto
+    ) {
+        return ResponseEntity.ok(bookingServiceImpl.createWindowBooking(dto));
+    }
+
     // GET booking by id
     @GetMapping("/{id}")
     public ResponseEntity<BookingResponseDto> getBookingById(
@@ -0,0 +1,29 @@
+package com.gazi.ParkUs.controller;
+
+import com.gazi.ParkUs.dto.OwnerDashboardDto;
+import com.gazi.ParkUs.services.DashboardService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    @GetMapping("/owner/{ownerId}")
+    public ResponseEntity<OwnerDashboardDto> getOwnerDashboard(
+            @PathVariable Long ownerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok(dashboardService.getOwnerDashboard(ownerId, from, to));
+    }
+}
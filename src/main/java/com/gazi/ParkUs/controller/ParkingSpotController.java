@@ -1,14 +1,27 @@
 package com.gazi.ParkUs.controller;
 
+import com.gazi.ParkUs.dto.NearbySpotResponseDto;
+import com.gazi.ParkUs.dto.ParkingSpotPageDto;
 import com.gazi.ParkUs.dto.ParkingSpotRequestDto;
 import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
 import com.gazi.ParkUs.services.ParkingSpotService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,9 +29,11 @@ import java.util.List;
 public class ParkingSpotController {
 
     private final ParkingSpotService spotService;
+    private final ObjectMapper objectMapper;
 
-    public ParkingSpotController(ParkingSpotService spotService) {
+    public ParkingSpotController(ParkingSpotService spotService, ObjectMapper objectMapper) {
         this.spotService = spotService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -32,8 +47,61 @@ public class ParkingSpotController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ParkingSpotResponseDto>> getAll() {
-        return ResponseEntity.ok(spotService.getAllSpots());
+    public ResponseEntity<ParkingSpotPageDto> getAll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(spotService.getSpots(cursor, limit));
+    }
+
+    // Every spot as newline-delimited JSON, written while the database cursor advances
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> {
+            spotService.streamAllSpots(spot -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(spot));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/nearby")
+    public ResponseEntity<Page<NearbySpotResponseDto>> getNearby(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(spotService.findNearby(lat, lng, radiusKm, pageable));
+    }
+
+    @GetMapping("/top-rated")
+    public ResponseEntity<List<ParkingSpotResponseDto>> getTopRated(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "1") long minRatings
+    ) {
+        return ResponseEntity.ok(spotService.getTopRatedSpots(limit, minRatings));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Page<NearbySpotResponseDto>> searchAvailable(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "distance") String rankBy,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return ResponseEntity.ok(spotService.searchAvailable(lat, lng, radiusKm, from, to, rankBy, pageable));
     }
 
     @GetMapping("/owner/{ownerId}")
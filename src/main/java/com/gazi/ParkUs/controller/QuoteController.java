@@ -0,0 +1,26 @@
+package com.gazi.ParkUs.controller;
+
+import com.gazi.ParkUs.dto.PriceQuoteDto;
+import com.gazi.ParkUs.dto.PriceQuoteRequestDto;
+import com.gazi.ParkUs.services.QuoteService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/quote")
+public class QuoteController {
+
+    private final QuoteService quoteService;
+
+    public QuoteController(QuoteService quoteService) {
+        this.quoteService = quoteService;
+    }
+
+    @PostMapping
+    public ResponseEntity<List<PriceQuoteDto>> quote(@Valid @RequestBody PriceQuoteRequestDto dto) {
+        return ResponseEntity.ok(quoteService.quote(dto));
+    }
+}
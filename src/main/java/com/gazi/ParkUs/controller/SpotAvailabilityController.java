@@ -1,13 +1,16 @@
 package com.gazi.ParkUs.controller;
 
+import com.gazi.ParkUs.dto.SpotAvailabilityBulkRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityResponseDto;
 import com.gazi.ParkUs.services.SpotAvailabilityService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -28,6 +31,14 @@ public class SpotAvailabilityController {
                 .body(availabilityService.createAvailability(dto));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<SpotAvailabilityResponseDto>> createAvailabilityBulk(
+            @Valid @RequestBody SpotAvailabilityBulkRequestDto dto
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(availabilityService.createAvailabilityBulk(dto));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<SpotAvailabilityResponseDto> getAvailabilityById(
             @PathVariable Long id
@@ -44,9 +55,23 @@ public class SpotAvailabilityController {
 
     @GetMapping("/spot/{spotId}/available")
     public ResponseEntity<List<SpotAvailabilityResponseDto>> getAvailableSlotsBySpot(
-            @PathVariable Long spotId
+            @PathVariable Long spotId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit
     ) {
-        return ResponseEntity.ok(availabilityService.getAvailableSlotsBySpot(spotId));
+        return ResponseEntity.ok(availabilityService.getAvailableSlotsBySpot(spotId, from, to, limit));
+    }
+
+    @PostMapping("/{id}/hold")
+    public ResponseEntity<SpotAvailabilityResponseDto> holdSlot(@PathVariable Long id) {
+        return ResponseEntity.ok(availabilityService.holdSlot(id));
+    }
+
+    @DeleteMapping("/{id}/hold")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long id) {
+        availabilityService.releaseHold(id);
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,52 @@
+package com.gazi.ParkUs.controller;
+
+import com.gazi.ParkUs.dto.RatingSummaryDto;
+import com.gazi.ParkUs.dto.SpotRatingRequestDto;
+import com.gazi.ParkUs.dto.SpotRatingResponseDto;
+import com.gazi.ParkUs.services.SpotRatingService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api")
+public class SpotRatingController {
+
+    private final SpotRatingService ratingService;
+
+    public SpotRatingController(SpotRatingService ratingService) {
+        this.ratingService = ratingService;
+    }
+
+    @PostMapping("/spots/{spotId}/ratings")
+    public ResponseEntity<SpotRatingResponseDto> rateSpot(
+            @PathVariable Long spotId,
+            @Valid @RequestBody SpotRatingRequestDto dto
+    ) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ratingService.rateSpot(spotId, dto));
+    }
+
+    @GetMapping("/spots/{spotId}/ratings")
+    public ResponseEntity<Page<SpotRatingResponseDto>> getRatings(
+            @PathVariable Long spotId,
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
+    ) {
+        return ResponseEntity.ok(ratingService.getRatingsForSpot(spotId, pageable));
+    }
+
+    @GetMapping("/spots/{spotId}/ratings/summary")
+    public ResponseEntity<RatingSummaryDto> getSummary(@PathVariable Long spotId) {
+        return ResponseEntity.ok(ratingService.getSummary(spotId));
+    }
+
+    @DeleteMapping("/ratings/{id}")
+    public ResponseEntity<Void> deleteRating(@PathVariable Long id) {
+        ratingService.deleteRating(id);
+        return ResponseEntity.noContent().build();
+    }
+}
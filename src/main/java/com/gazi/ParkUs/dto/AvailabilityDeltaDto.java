@@ -0,0 +1,19 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/** One slot change pushed to WebSocket subscribers: CREATED, UPDATED, DELETED, BOOKED or FREED. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityDeltaDto {
+    private String type;
+    private Long availabilityId;
+    private Long spotId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -1,15 +1,24 @@
 package com.gazi.ParkUs.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingLogDTO {
+    private Long logId;
     private Long bookingId;
     private Long spotId;
+    private Long ownerId;
     private Long renterId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private BigDecimal durationHours;
     private BigDecimal totalAmount;
     private String status;
     private LocalDateTime loggedAt;
@@ -8,6 +8,22 @@ public class BookingResponseDto {
     private Long bookingId;
     private Long spotId;
 
+    public BookingResponseDto() {
+    }
+
+    // Used by JPQL constructor projections in BookingRepository
+    public BookingResponseDto(Long bookingId, Long spotId, Long renterId, Long ownerId, String status,
+                              BigDecimal totalAmount, LocalDateTime startTime, LocalDateTime endTime) {
+        this.bookingId = bookingId;
+        this.spotId = spotId;
+        this.renterId = renterId;
+        this.ownerId = ownerId;
+        this.status = status;
+        this.totalAmount = totalAmount;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
     public void setTotalAmount(BigDecimal totalAmount) {
         this.totalAmount = totalAmount;
     }
@@ -0,0 +1,13 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbySpotResponseDto {
+    private ParkingSpotResponseDto spot;
+    private double distanceKm;
+}
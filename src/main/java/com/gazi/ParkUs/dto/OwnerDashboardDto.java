@@ -0,0 +1,25 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OwnerDashboardDto {
+    private Long ownerId;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal totalRevenue;
+    private BigDecimal totalBookedHours;
+    private long totalBookings;
+    private long totalCancellations;
+    // Booked hours over 24 h x days x the owner's spots
+    private BigDecimal occupancy;
+    private List<SpotDailyRollupDto> days;
+}
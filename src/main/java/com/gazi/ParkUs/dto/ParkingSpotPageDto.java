@@ -0,0 +1,16 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParkingSpotPageDto {
+    private List<ParkingSpotResponseDto> items;
+    // Opaque token for the next page; null when there are no more spots
+    private String nextCursor;
+}
@@ -19,6 +19,9 @@ public class ParkingSpotResponseDto {
     private String slotType;
     private BigDecimal pricePerHour;
     private LocalDateTime createdAt;
+    // Filled from the in-memory rating aggregates; null average means no ratings yet
+    private Double averageRating;
+    private long ratingCount;
 
     public ParkingSpotResponseDto(Long spotId, Long ownerId, String title, String description, String location, BigDecimal latitude, BigDecimal longitude, String slotType, BigDecimal pricePerHour, LocalDateTime createdAt) {
         this.spotId = spotId;
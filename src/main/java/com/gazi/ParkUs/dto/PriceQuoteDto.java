@@ -0,0 +1,21 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuoteDto {
+    private Long spotId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private long minutes;
+    private long peakMinutes;
+    private BigDecimal pricePerHour;
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,15 @@
+package com.gazi.ParkUs.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PriceQuoteRequestDto {
+    @NotEmpty(message = "At least one window is required")
+    @Size(max = 500, message = "At most 500 windows per request")
+    private List<@Valid QuoteWindowDto> windows;
+}
@@ -0,0 +1,18 @@
+package com.gazi.ParkUs.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class QuoteWindowDto {
+    @NotNull(message = "Spot ID is required")
+    private Long spotId;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,17 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryDto {
+    private Long spotId;
+    private long ratingCount;
+    private Double averageRating;
+    private Map<Integer, Long> histogram;
+}
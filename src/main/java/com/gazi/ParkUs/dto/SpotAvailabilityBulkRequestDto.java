@@ -0,0 +1,40 @@
+package com.gazi.ParkUs.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Set;
+
+@Data
+public class SpotAvailabilityBulkRequestDto {
+    @NotNull(message = "Spot ID is required")
+    private Long spotId;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date cannot be in the past")
+    private LocalDate startDate;
+
+    @NotNull(message = "End date is required")
+    private LocalDate endDate;
+
+    @NotEmpty(message = "At least one day of week is required")
+    private Set<DayOfWeek> daysOfWeek;
+
+    @NotNull(message = "Daily start time is required")
+    private LocalTime dailyStartTime;
+
+    @NotNull(message = "Daily end time is required")
+    private LocalTime dailyEndTime;
+
+    @NotNull(message = "Slot length is required")
+    @Min(value = 15, message = "Slots must be at least 15 minutes")
+    @Max(value = 1440, message = "Slots cannot be longer than a day")
+    private Integer slotMinutes;
+}
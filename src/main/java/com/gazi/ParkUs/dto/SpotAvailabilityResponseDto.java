@@ -1,14 +1,25 @@
 package com.gazi.ParkUs.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class SpotAvailabilityResponseDto {
     private Long availabilityId;
     private Long spotId;
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private Boolean isBooked;
+    // End of the active hold, null when the slot is not held
+    private LocalDateTime heldUntil;
+
+    public SpotAvailabilityResponseDto(Long availabilityId, Long spotId, LocalDateTime startTime,
+                                       LocalDateTime endTime, Boolean isBooked) {
+        this(availabilityId, spotId, startTime, endTime, isBooked, null);
+    }
 }
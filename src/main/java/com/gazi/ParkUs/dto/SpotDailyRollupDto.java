@@ -0,0 +1,26 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotDailyRollupDto {
+    private Long spotId;
+    private LocalDate date;
+    private BigDecimal bookedHours;
+    private BigDecimal revenue;
+    private Integer bookings;
+    private Integer cancellations;
+
+    // Fraction of the day booked
+    public BigDecimal getOccupancy() {
+        return bookedHours == null ? null : bookedHours.divide(BigDecimal.valueOf(24), 4, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,19 @@
+package com.gazi.ParkUs.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotRatingResponseDto {
+    private Long ratingId;
+    private Long spotId;
+    private Long userId;
+    private Integer rating;
+    private String comment;
+    private LocalDateTime createdAt;
+}
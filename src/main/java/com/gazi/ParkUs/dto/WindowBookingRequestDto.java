@@ -0,0 +1,21 @@
+package com.gazi.ParkUs.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class WindowBookingRequestDto {
+    @NotNull(message = "Spot ID is required")
+    private Long spotId;
+
+    @NotNull(message = "Renter ID is required")
+    private Long renterId;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalDateTime endTime;
+}
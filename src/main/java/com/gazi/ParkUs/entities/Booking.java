@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "booking")
+@Table(
+        name = "booking",
+        indexes = @Index(name = "idx_booking_availability", columnList = "availability_id")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,10 +32,15 @@ public class Booking {
     @JoinColumn(name = "renter_id")
     private UserEntity renter;
 
+    // The first slot booked; a window booking covers every slot from startTime to endTime
     @ManyToOne
     @JoinColumn(name = "availability_id")
     private SpotAvailability availability;
 
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
     private LocalDateTime bookedAt = LocalDateTime.now();
 
     private String status;
@@ -34,5 +34,7 @@ public class BookingLog {
 
     private String bookingStatus;
 
+    // Partition key: monthly range partitions (see BookingLogPartitionManager)
+    @Column(nullable = false)
     private LocalDateTime loggedAt = LocalDateTime.now();
 }
@@ -9,15 +9,24 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "spotavailability")
+@Table(
+        name = "spotavailability",
+        indexes = @Index(name = "idx_availability_spot_free_start", columnList = "spot_id, is_booked, start_time")
+)
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class SpotAvailability {
 
+    // Sequence ids (allocated 50 at a time) let Hibernate batch bulk inserts; IDENTITY cannot
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "spotavailability_seq")
+    @SequenceGenerator(
+            name = "spotavailability_seq",
+            sequenceName = "spotavailability_availability_id_seq",
+            allocationSize = 50
+    )
     private Long availabilityId;
 
     @ManyToOne
@@ -28,4 +37,12 @@ public class SpotAvailability {
     private LocalDateTime endTime;
 
     private Boolean isBooked = false;
+
+    // Short-lived reservation: a hold is active while holdExpiresAt is in the future
+    private Long heldBy;
+    private LocalDateTime holdExpiresAt;
+
+    public boolean isHeldAt(LocalDateTime now) {
+        return holdExpiresAt != null && holdExpiresAt.isAfter(now);
+    }
 }
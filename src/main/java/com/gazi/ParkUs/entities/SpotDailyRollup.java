@@ -0,0 +1,60 @@
+package com.gazi.ParkUs.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Booked hours, revenue and cancellations of one spot on one day. Hours are
+ * split across the days a stay covers; revenue and counts go to its start day.
+ * Maintained from the booking log by SpotDailyRollups.
+ */
+@Entity
+@Table(
+        name = "spotdailyrollup",
+        uniqueConstraints = {
+                @UniqueConstraint(columnNames = {"spot_id", "rollup_date"})
+        },
+        indexes = {
+                @Index(name = "idx_rollup_owner_date", columnList = "owner_id, rollup_date")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpotDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long rollupId;
+
+    @Column(nullable = false)
+    private Long spotId;
+
+    @Column(nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal bookedHours;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(nullable = false)
+    private Integer bookings;
+
+    @Column(nullable = false)
+    private Integer cancellations;
+
+    private LocalDateTime updatedAt;
+}
@@ -40,6 +40,10 @@ public abstract class UserEntity {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime registrationDate;
 
+    // Carried in issued JWTs; bumped to invalidate every token issued before
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     // Parameterized constructor
     public UserEntity(String email, String firstName, String lastName, String password, UserRole role) {
         setEmail(email);
@@ -127,6 +131,14 @@ public abstract class UserEntity {
         this.registrationDate = registrationDate;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public void revokeTokens() {
+        this.tokenVersion++;
+    }
+
 
 
 }
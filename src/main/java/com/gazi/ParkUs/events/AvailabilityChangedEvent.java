@@ -0,0 +1,38 @@
+package com.gazi.ParkUs.events;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a SpotAvailability row is created, moved, removed,
+ * booked, freed, held or released (including a hold lapsing). Listeners react after the surrounding transaction commits.
+ */
+public record AvailabilityChangedEvent(
+        Type type,
+        Long availabilityId,
+        Long spotId,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BOOKED,
+        FREED,
+        HELD,
+        RELEASED
+    }
+
+    public static AvailabilityChangedEvent of(Type type, SpotAvailability availability) {
+        return new AvailabilityChangedEvent(
+                type,
+                availability.getAvailabilityId(),
+                availability.getSpot().getSpotId(),
+                availability.getStartTime(),
+                availability.getEndTime()
+        );
+    }
+}
@@ -0,0 +1,39 @@
+package com.gazi.ParkUs.events;
+
+import com.gazi.ParkUs.entities.Booking;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published whenever a Booking is created or changes status. Carries the
+ * state needed for the audit log, captured inside the transaction.
+ */
+public record BookingChangedEvent(
+        Long bookingId,
+        Long spotId,
+        Long ownerId,
+        Long renterId,
+        Long availabilityId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        BigDecimal totalAmount,
+        String status,
+        LocalDateTime occurredAt
+) {
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(
+                booking.getBookingId(),
+                booking.getSpot().getSpotId(),
+                booking.getSpot().getOwner().getUserId(),
+                booking.getRenter().getUserId(),
+                booking.getAvailability().getAvailabilityId(),
+                booking.getStartTime(),
+                booking.getEndTime(),
+                booking.getTotalAmount(),
+                booking.getStatus(),
+                LocalDateTime.now()
+        );
+    }
+}
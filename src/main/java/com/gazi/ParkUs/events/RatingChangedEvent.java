@@ -0,0 +1,29 @@
+package com.gazi.ParkUs.events;
+
+import com.gazi.ParkUs.entities.SpotRating;
+
+/**
+ * Published whenever a SpotRating is added or removed.
+ * Listeners react after the surrounding transaction commits.
+ */
+public record RatingChangedEvent(
+        Type type,
+        Long ratingId,
+        Long spotId,
+        int rating
+) {
+
+    public enum Type {
+        CREATED,
+        DELETED
+    }
+
+    public static RatingChangedEvent of(Type type, SpotRating rating) {
+        return new RatingChangedEvent(
+                type,
+                rating.getRatingId(),
+                rating.getSpot().getSpotId(),
+                rating.getRating()
+        );
+    }
+}
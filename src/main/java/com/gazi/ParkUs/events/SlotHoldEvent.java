@@ -0,0 +1,37 @@
+package com.gazi.ParkUs.events;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a user takes, extends or releases a hold on a SpotAvailability.
+ * Listeners react after the surrounding transaction commits.
+ */
+public record SlotHoldEvent(
+        Type type,
+        Long availabilityId,
+        Long spotId,
+        Long userId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        LocalDateTime expiresAt
+) {
+
+    public enum Type {
+        HELD,
+        RELEASED
+    }
+
+    public static SlotHoldEvent of(Type type, SpotAvailability availability, Long userId) {
+        return new SlotHoldEvent(
+                type,
+                availability.getAvailabilityId(),
+                availability.getSpot().getSpotId(),
+                userId,
+                availability.getStartTime(),
+                availability.getEndTime(),
+                availability.getHoldExpiresAt()
+        );
+    }
+}
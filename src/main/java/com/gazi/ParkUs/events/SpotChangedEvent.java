@@ -0,0 +1,34 @@
+package com.gazi.ParkUs.events;
+
+import com.gazi.ParkUs.entities.ParkingSpot;
+
+import java.math.BigDecimal;
+
+/**
+ * Published whenever a ParkingSpot is created, edited or removed.
+ * Listeners react after the surrounding transaction commits.
+ */
+public record SpotChangedEvent(
+        Type type,
+        Long spotId,
+        BigDecimal latitude,
+        BigDecimal longitude,
+        BigDecimal pricePerHour
+) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static SpotChangedEvent of(Type type, ParkingSpot spot) {
+        return new SpotChangedEvent(
+                type,
+                spot.getSpotId(),
+                spot.getLatitude(),
+                spot.getLongitude(),
+                spot.getPricePerHour()
+        );
+    }
+}
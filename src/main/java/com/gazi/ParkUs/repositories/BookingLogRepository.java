@@ -1,29 +1,60 @@
 package com.gazi.ParkUs.repositories;
 
+import com.gazi.ParkUs.dto.BookingLogDTO;
 import com.gazi.ParkUs.entities.BookingLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingLogRepository extends JpaRepository<BookingLog, Long> {
 
-    List<BookingLog> findByBookingId(Long bookingId);
+    // bookinglog is range-partitioned by month on logged_at: every query takes a bounded page,
+    // and time-range queries use half-open [from, to) bounds so Postgres prunes to the covering partitions
 
-    List<BookingLog> findByRenterId(Long renterId);
+    Slice<BookingLog> findByBookingId(Long bookingId, Pageable pageable);
 
-    List<BookingLog> findByOwnerId(Long ownerId);
+    Slice<BookingLog> findByRenterId(Long renterId, Pageable pageable);
+
+    Slice<BookingLog> findByOwnerId(Long ownerId, Pageable pageable);
 
     @Query("""
         SELECT l FROM BookingLog l
-        WHERE l.loggedAt BETWEEN :from AND :to
+        WHERE l.loggedAt >= :from AND l.loggedAt < :to
+        ORDER BY l.loggedAt, l.logId
+    """)
+    Slice<BookingLog> findLogsBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Pageable pageable
+    );
+
+    // For exports: DTO rows over a JDBC cursor, so nothing accumulates in the persistence context.
+    // Owner and spot filters are optional; callers must close the stream inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.BookingLogDTO(
+            l.logId, l.bookingId, l.spotId, l.ownerId, l.renterId, l.startTime, l.endTime,
+            l.durationHours, l.totalAmount, l.bookingStatus, l.loggedAt)
+        FROM BookingLog l
+        WHERE l.loggedAt >= :from AND l.loggedAt < :to
+          AND (:ownerId IS NULL OR l.ownerId = :ownerId)
+          AND (:spotId IS NULL OR l.spotId = :spotId)
+        ORDER BY l.loggedAt, l.logId
     """)
-    List<BookingLog> findLogsBetween(
+    Stream<BookingLogDTO> streamLogsBetween(
             @Param("from") LocalDateTime from,
-            @Param("to") LocalDateTime to
+            @Param("to") LocalDateTime to,
+            @Param("ownerId") Long ownerId,
+            @Param("spotId") Long spotId
     );
 }
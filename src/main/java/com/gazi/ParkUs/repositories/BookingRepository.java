@@ -1,28 +1,121 @@
 package com.gazi.ParkUs.repositories;
 
+import com.gazi.ParkUs.dto.BookingResponseDto;
 import com.gazi.ParkUs.entities.Booking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @Query("""
+        SELECT b FROM Booking b
+        WHERE b.spot.spotId = :spotId
+          AND b.status IN ('confirmed', 'pending')
+    """)
+    List<Booking> findActiveBookingsForSpot(@Param("spotId") Long spotId);
 
+    // Flat DTO projections: one statement per call, no entity graph to lazy/eager load
 
-    List<Booking> findByRenter_UserId(Long renterId);
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.BookingResponseDto(
+            b.bookingId, s.spotId, b.renter.userId, s.owner.userId,
+            b.status, b.totalAmount, b.startTime, b.endTime)
+        FROM Booking b
+        JOIN b.spot s
+        WHERE b.bookingId = :bookingId
+    """)
+    Optional<BookingResponseDto> findDtoById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findBySpot_Owner_UserId(Long ownerId);
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.BookingResponseDto(
+            b.bookingId, s.spotId, b.renter.userId, s.owner.userId,
+            b.status, b.totalAmount, b.startTime, b.endTime)
+        FROM Booking b
+        JOIN b.spot s
+        WHERE b.renter.userId = :renterId
+    """)
+    List<BookingResponseDto> findDtosByRenter(@Param("renterId") Long renterId);
 
-    List<Booking> findByStatus(String status);
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.BookingResponseDto(
+            b.bookingId, s.spotId, b.renter.userId, s.owner.userId,
+            b.status, b.totalAmount, b.startTime, b.endTime)
+        FROM Booking b
+        JOIN b.spot s
+        WHERE s.owner.userId = :ownerId
+    """)
+    List<BookingResponseDto> findDtosByOwner(@Param("ownerId") Long ownerId);
 
     @Query("""
-        SELECT b FROM Booking b
-        WHERE b.spot.spotId = :spotId
-          AND b.status IN ('confirmed', 'pending')
+        SELECT new com.gazi.ParkUs.dto.BookingResponseDto(
+            b.bookingId, s.spotId, b.renter.userId, s.owner.userId,
+            b.status, b.totalAmount, b.startTime, b.endTime)
+        FROM Booking b
+        JOIN b.spot s
+        WHERE b.status = :status
     """)
-    List<Booking> findActiveBookingsForSpot(@Param("spotId") Long spotId);
+    List<BookingResponseDto> findDtosByStatus(@Param("status") String status);
+
+    @Query(value = """
+        SELECT new com.gazi.ParkUs.dto.BookingResponseDto(
+            b.bookingId, s.spotId, b.renter.userId, s.owner.userId,
+            b.status, b.totalAmount, b.startTime, b.endTime)
+        FROM Booking b
+        JOIN b.spot s
+    """,
+            countQuery = "SELECT COUNT(b) FROM Booking b")
+    Page<BookingResponseDto> findAllDtos(Pageable pageable);
+
+    // Expiry: (bookingId, endTime) of confirmed bookings ending in [from, to), served by idx_booking_confirmed_end
+    @Query("""
+        SELECT b.bookingId, b.endTime FROM Booking b
+        WHERE b.status = 'confirmed'
+          AND b.endTime >= :from
+          AND b.endTime < :to
+        ORDER BY b.endTime
+    """)
+    List<Object[]> findConfirmedEndingBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Limit limit
+    );
+
+    // (bookingId, spotId, ownerId, renterId, availabilityId, startTime, endTime, totalAmount) for the audit log
+    @Query("""
+        SELECT b.bookingId, s.spotId, s.owner.userId, b.renter.userId, b.availability.availabilityId,
+               b.startTime, b.endTime, b.totalAmount
+        FROM Booking b
+        JOIN b.spot s
+        WHERE b.bookingId IN :ids
+          AND b.status = 'confirmed'
+          AND b.endTime <= :now
+    """)
+    List<Object[]> findEndedConfirmed(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE Booking b SET b.status = 'completed'
+        WHERE b.bookingId IN :ids
+          AND b.status = 'confirmed'
+    """)
+    int markCompleted(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+        SELECT b.bookingId FROM Booking b
+        WHERE b.bookingId IN :ids
+          AND b.status = :status
+    """)
+    List<Long> findIdsWithStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
 }
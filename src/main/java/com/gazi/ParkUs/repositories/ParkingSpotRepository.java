@@ -1,13 +1,21 @@
 package com.gazi.ParkUs.repositories;
 
+import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
 import com.gazi.ParkUs.entities.ParkingSpot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long> {
@@ -16,17 +24,56 @@ public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long>
 
     boolean existsByOwner_UserId(Long ownerId);
 
+    long countByOwner_UserId(Long ownerId);
 
+    @Query("""
+        SELECT p.spotId, p.latitude, p.longitude, p.pricePerHour FROM ParkingSpot p
+    """)
+    List<Object[]> findAllCoordinates();
+
+    @Query("""
+        SELECT p.spotId, p.pricePerHour FROM ParkingSpot p
+    """)
+    List<Object[]> findAllPrices();
 
     @Query("""
-        SELECT p FROM ParkingSpot p
-        WHERE p.latitude BETWEEN :latMin AND :latMax
-          AND p.longitude BETWEEN :lngMin AND :lngMax
+        SELECT p.pricePerHour FROM ParkingSpot p WHERE p.spotId = :spotId
     """)
-    List<ParkingSpot> findNearby(
-            @Param("latMin") BigDecimal latMin,
-            @Param("latMax") BigDecimal latMax,
-            @Param("lngMin") BigDecimal lngMin,
-            @Param("lngMax") BigDecimal lngMax
+    Optional<BigDecimal> findPricePerHour(@Param("spotId") Long spotId);
+
+    // Keyset pagination: rows are ordered by (createdAt, spotId) and each page seeks past the last one
+
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.ParkingSpotResponseDto(
+            p.spotId, p.owner.userId, p.title, p.description, p.location,
+            p.latitude, p.longitude, p.slotType, p.pricePerHour, p.createdAt)
+        FROM ParkingSpot p
+        ORDER BY p.createdAt, p.spotId
+    """)
+    List<ParkingSpotResponseDto> findFirstPage(Limit limit);
+
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.ParkingSpotResponseDto(
+            p.spotId, p.owner.userId, p.title, p.description, p.location,
+            p.latitude, p.longitude, p.slotType, p.pricePerHour, p.createdAt)
+        FROM ParkingSpot p
+        WHERE p.createdAt > :createdAt
+           OR (p.createdAt = :createdAt AND p.spotId > :spotId)
+        ORDER BY p.createdAt, p.spotId
+    """)
+    List<ParkingSpotResponseDto> findPageAfter(
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("spotId") Long spotId,
+            Limit limit
     );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.ParkingSpotResponseDto(
+            p.spotId, p.owner.userId, p.title, p.description, p.location,
+            p.latitude, p.longitude, p.slotType, p.pricePerHour, p.createdAt)
+        FROM ParkingSpot p
+        ORDER BY p.createdAt, p.spotId
+    """)
+    Stream<ParkingSpotResponseDto> streamAll();
 }
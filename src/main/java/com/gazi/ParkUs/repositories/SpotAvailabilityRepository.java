@@ -1,14 +1,21 @@
 package com.gazi.ParkUs.repositories;
 
+import com.gazi.ParkUs.dto.SpotAvailabilityResponseDto;
 import com.gazi.ParkUs.entities.SpotAvailability;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +24,61 @@ public interface SpotAvailabilityRepository extends JpaRepository<SpotAvailabili
 
     List<SpotAvailability> findBySpot_SpotId(Long spotId);
     
-    List<SpotAvailability> findBySpot_SpotIdAndIsBookedFalse(Long spotId);
+    // Served by idx_availability_spot_free_start (spot_id, is_booked, start_time); slots held by anyone are left out
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.SpotAvailabilityResponseDto(
+            a.availabilityId, a.spot.spotId, a.startTime, a.endTime, a.isBooked)
+        FROM SpotAvailability a
+        WHERE a.spot.spotId = :spotId
+          AND a.isBooked = false
+          AND a.startTime > :from
+          AND a.startTime < :to
+          AND (a.holdExpiresAt IS NULL OR a.holdExpiresAt <= :now)
+        ORDER BY a.startTime
+    """)
+    List<SpotAvailabilityResponseDto> findFreeSlots(
+            @Param("spotId") Long spotId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now,
+            Limit limit
+    );
+
+    // Spots among :spotIds whose unbooked, unheld slots cover [from, to] without a gap (one slot or
+    // several back to back). LAG finds each slot's predecessor among the free slots touching the
+    // window; range scan on idx_availability_spot_free_start. spot_id is INT in DDL.sql, hence the cast
+    @Query(nativeQuery = true, value = """
+        SELECT CAST(free_slots.spot_id AS BIGINT) FROM (
+            SELECT a.spot_id, a.start_time, a.end_time,
+                   LAG(a.end_time) OVER (PARTITION BY a.spot_id ORDER BY a.start_time) AS prev_end
+            FROM spotavailability a
+            WHERE a.spot_id IN (:spotIds)
+              AND a.is_booked = false
+              AND a.start_time < :to
+              AND a.end_time > :from
+              AND (a.hold_expires_at IS NULL OR a.hold_expires_at <= :now)
+        ) free_slots
+        GROUP BY free_slots.spot_id
+        HAVING MIN(free_slots.start_time) <= :from
+           AND MAX(free_slots.end_time) >= :to
+           AND COUNT(CASE WHEN free_slots.start_time > free_slots.prev_end THEN 1 END) = 0
+    """)
+    List<Long> findSpotIdsFreeBetween(
+            @Param("spotIds") Collection<Long> spotIds,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("now") LocalDateTime now
+    );
+
+    @Query("""
+        SELECT a.availabilityId, a.startTime, a.endTime FROM SpotAvailability a
+        WHERE a.spot.spotId = :spotId
+          AND a.endTime > :after
+    """)
+    List<Object[]> findIntervalsBySpot(
+            @Param("spotId") Long spotId,
+            @Param("after") LocalDateTime after
+    );
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("""
@@ -26,16 +87,133 @@ public interface SpotAvailabilityRepository extends JpaRepository<SpotAvailabili
     """)
     Optional<SpotAvailability> lockById(@Param("id") Long id);
 
+    // Read-only: the optimistic booking path claims the row with markBookedIfFree instead of a dirty flush
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("""
+        SELECT a FROM SpotAvailability a
+        WHERE a.availabilityId = :id
+    """)
+    Optional<SpotAvailability> findReadOnlyById(@Param("id") Long id);
+
+    // Claim path: locks the row or fails at once (Postgres 55P03) when another transaction holds it,
+    // so a loser never waits for the winner to commit. Empty when the row was removed
+    @Query(nativeQuery = true, value = """
+        SELECT CAST(a.availability_id AS BIGINT) FROM spotavailability a
+        WHERE a.availability_id = :id
+        FOR UPDATE NOWAIT
+    """)
+    Optional<Long> lockNoWait(@Param("id") Long id);
+
+    // Returns 0 when the slot was booked, held by someone else or removed; a claim consumes the renter's hold
+    @Modifying
+    @Query("""
+        UPDATE SpotAvailability a SET a.isBooked = true, a.heldBy = null, a.holdExpiresAt = null
+        WHERE a.availabilityId = :id
+          AND a.isBooked = false
+          AND (a.holdExpiresAt IS NULL OR a.holdExpiresAt <= :now OR a.heldBy = :renterId)
+    """)
+    int markBookedIfFree(
+            @Param("id") Long id,
+            @Param("renterId") Long renterId,
+            @Param("now") LocalDateTime now
+    );
+
+    // Takes or extends a hold; returns 0 when the slot is booked, started or held by someone else
+    @Modifying
+    @Query("""
+        UPDATE SpotAvailability a SET a.heldBy = :userId, a.holdExpiresAt = :expiresAt
+        WHERE a.availabilityId = :id
+          AND a.isBooked = false
+          AND a.startTime > :now
+          AND (a.holdExpiresAt IS NULL OR a.holdExpiresAt <= :now OR a.heldBy = :userId)
+    """)
+    int holdIfAvailable(
+            @Param("id") Long id,
+            @Param("userId") Long userId,
+            @Param("now") LocalDateTime now,
+            @Param("expiresAt") LocalDateTime expiresAt
+    );
+
+    @Modifying
+    @Query("""
+        UPDATE SpotAvailability a SET a.heldBy = null, a.holdExpiresAt = null
+        WHERE a.availabilityId = :id
+          AND a.heldBy = :userId
+    """)
+    int releaseHold(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Served by the partial index idx_availability_active_hold
+    @Query("""
+        SELECT a FROM SpotAvailability a
+        JOIN FETCH a.spot
+        WHERE a.holdExpiresAt > :now
+    """)
+    List<SpotAvailability> findActiveHolds(@Param("now") LocalDateTime now);
+
+        // Rows come back, and are locked, in start order so concurrent range locks cannot deadlock
         @Lock(LockModeType.PESSIMISTIC_WRITE)
         @Query("""
         SELECT a FROM SpotAvailability a
         WHERE a.spot.spotId = :spotId
           AND a.startTime < :endTime
           AND a.endTime > :startTime
+        ORDER BY a.startTime
         """)
         List<SpotAvailability> findOverlapping(
             @Param("spotId") Long spotId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
         );
+
+    // The booked slots of one booking's window; bookings split edge slots, so each lies inside it
+    @Query("""
+        SELECT a FROM SpotAvailability a
+        WHERE a.spot.spotId = :spotId
+          AND a.isBooked = true
+          AND a.startTime >= :startTime
+          AND a.endTime <= :endTime
+        ORDER BY a.startTime
+    """)
+    List<SpotAvailability> findBookedWithin(
+            @Param("spotId") Long spotId,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime
+    );
+
+    // Expiry:(availabilityId, startTime) of unbooked slots starting in [from, to), served by idx_availability_free_start
+    @Query("""
+        SELECT a.availabilityId, a.startTime FROM SpotAvailability a
+        WHERE a.isBooked = false
+          AND a.startTime >= :from
+          AND a.startTime < :to
+        ORDER BY a.startTime
+    """)
+    List<Object[]> findUnbookedStartingBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            Limit limit
+    );
+
+    // Started, never-booked slots; a slot a booking still points at (e.g. a cancelled one) is kept
+    @Query("""
+        SELECT a FROM SpotAvailability a
+        JOIN FETCH a.spot
+        WHERE a.availabilityId IN :ids
+          AND a.isBooked = false
+          AND a.startTime <= :now
+          AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.availability = a)
+    """)
+    List<SpotAvailability> findStale(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+        DELETE FROM SpotAvailability a
+        WHERE a.availabilityId IN :ids
+          AND a.isBooked = false
+          AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.availability = a)
+    """)
+    int deleteUnbooked(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a.availabilityId FROM SpotAvailability a WHERE a.availabilityId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,29 @@
+package com.gazi.ParkUs.repositories;
+
+import com.gazi.ParkUs.dto.SpotDailyRollupDto;
+import com.gazi.ParkUs.entities.SpotDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SpotDailyRollupRepository extends JpaRepository<SpotDailyRollup, Long> {
+
+    @Query("""
+        SELECT new com.gazi.ParkUs.dto.SpotDailyRollupDto(
+            r.spotId, r.rollupDate, r.bookedHours, r.revenue, r.bookings, r.cancellations)
+        FROM SpotDailyRollup r
+        WHERE r.ownerId = :ownerId
+          AND r.rollupDate BETWEEN :from AND :to
+        ORDER BY r.rollupDate, r.spotId
+    """)
+    List<SpotDailyRollupDto> findDtosByOwnerBetween(
+            @Param("ownerId") Long ownerId,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+}
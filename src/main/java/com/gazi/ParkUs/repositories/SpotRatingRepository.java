@@ -1,7 +1,12 @@
 package com.gazi.ParkUs.repositories;
 
+import com.gazi.ParkUs.dto.SpotRatingResponseDto;
 import com.gazi.ParkUs.entities.SpotRating;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,4 +17,22 @@ public interface SpotRatingRepository extends JpaRepository<SpotRating, Long> {
     List<SpotRating> findBySpot_SpotId(Long spotId);
 
     boolean existsBySpot_SpotIdAndUser_UserId(Long spotId, Long userId);
+
+    @Query(value = """
+        SELECT new com.gazi.ParkUs.dto.SpotRatingResponseDto(
+            r.ratingId, r.spot.spotId, r.user.userId, r.rating, r.comment, r.createdAt)
+        FROM SpotRating r
+        WHERE r.spot.spotId = :spotId
+    """, countQuery = """
+        SELECT COUNT(r) FROM SpotRating r
+        WHERE r.spot.spotId = :spotId
+    """)
+    Page<SpotRatingResponseDto> findDtosBySpot(@Param("spotId") Long spotId, Pageable pageable);
+
+    // Rows of (spotId, rating, count) used to build the in-memory aggregates
+    @Query("""
+        SELECT r.spot.spotId, r.rating, COUNT(r) FROM SpotRating r
+        GROUP BY r.spot.spotId, r.rating
+    """)
+    List<Object[]> countBySpotAndRating();
 }
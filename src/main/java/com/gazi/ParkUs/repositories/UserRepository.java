@@ -2,6 +2,8 @@ package com.gazi.ParkUs.repositories;
 
 import com.gazi.ParkUs.entities.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,7 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<UserEntity, Long>{
     Optional<UserEntity> findByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM UserEntity u WHERE u.userId = :userId")
+    Optional<Integer> findTokenVersion(@Param("userId") Long userId);
 }
@@ -0,0 +1,35 @@
+package com.gazi.ParkUs.security;
+
+import com.gazi.ParkUs.User.UserRole;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Principal placed in the security context for authenticated requests.
+ * Carries the user id and role so services don't have to look the user up again.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final UserRole role;
+
+    public AuthenticatedUser(Long userId, String email, String passwordHash, UserRole role) {
+        super(email, passwordHash, List.of(new SimpleGrantedAuthority(role.toString())));
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public UserRole getRole() {
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ROLE_ADMIN;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gazi.ParkUs.security;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Size bound shared by the lock-free token caches, which are plain concurrent maps.
+ *
+ * A full cache first drops its expired entries; if it is still full of live ones it is
+ * emptied and refilled on demand rather than tracking recency on every read. Entries are
+ * cheap to rebuild, so the occasional burst of misses costs less than an LRU lock would.
+ */
+final class CacheEviction {
+
+    private CacheEviction() {
+    }
+
+    // Call before inserting; concurrent writers may overshoot maxSize by a few entries
+    static <K, V> void makeRoom(Map<K, V> cache, int maxSize, Predicate<? super V> expired) {
+        if (cache.size() < maxSize) {
+            return;
+        }
+        cache.values().removeIf(expired);
+        if (cache.size() >= maxSize) {
+            cache.clear();
+        }
+    }
+}
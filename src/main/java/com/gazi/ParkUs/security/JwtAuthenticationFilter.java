@@ -1,10 +1,14 @@
 package com.gazi.ParkUs.security;
 
+import com.gazi.ParkUs.User.UserRole;
 import com.gazi.ParkUs.services.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,10 +23,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationRegistry revocations;
+    private final boolean stateless;
+    private final Timer verifyValid;
+    private final Timer verifyInvalid;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(
+            JwtUtil jwtUtil,
+            CustomUserDetailsService userDetailsService,
+            TokenRevocationRegistry revocations,
+            MeterRegistry meters,
+            @Value("${jwt.stateless:false}") boolean stateless
+    ) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.revocations = revocations;
+        this.stateless = stateless;
+        this.verifyValid = verifyTimer(meters, "valid");
+        this.verifyInvalid = verifyTimer(meters, "invalid");
     }
 
     @Override
@@ -32,13 +50,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
 
         String username = null;
-        String jwt = null;
+        ParsedToken jwt = null;
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            Timer.Sample sample = Timer.start();
             try {
-                username = jwtUtil.extractUsername(jwt);
+                jwt = jwtUtil.parse(authorizationHeader.substring(7));
+                username = jwt.subject();
+                sample.stop(verifyValid);
             } catch (Exception e) {
+                sample.stop(verifyInvalid);
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid token");
                 return;
             }
@@ -46,7 +67,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = stateless ? principalFromClaims(jwt) : null;
+                if (userDetails == null) {
+                    userDetails = this.userDetailsService.loadUserByUsername(username);
+                }
 
                 if (jwtUtil.validateToken(jwt, userDetails)) {
                     UsernamePasswordAuthenticationToken authenticationToken =
@@ -65,4 +89,27 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         chain.doFilter(request, response);
     }
+
+    /**
+     * Stateless mode: trusts the signed userId/role claims instead of loading the user.
+     * Returns null for tokens without those claims so they fall back to a lookup.
+     */
+    private UserDetails principalFromClaims(ParsedToken jwt) {
+        if (jwt.userId() == null || jwt.role() == null) {
+            return null;
+        }
+
+        if (revocations.isRevoked(jwt.userId(), jwt.tokenVersion())) {
+            throw new IllegalStateException("Token has been revoked");
+        }
+        return new AuthenticatedUser(jwt.userId(), jwt.subject(), "", UserRole.valueOf(jwt.role()));
+    }
+
+    private static Timer verifyTimer(MeterRegistry meters, String result) {
+        return Timer.builder("parkus.jwt.verify")
+                .description("Bearer token parsing and signature verification (cache hits included)")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meters);
+    }
 }
@@ -2,6 +2,7 @@ package com.gazi.ParkUs.security;
 
 import com.gazi.ParkUs.entities.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
@@ -11,9 +12,13 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Component
@@ -25,32 +30,59 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
-    private byte[] secretBytes;
+    @Value("${jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens keyed by SHA-256 of the raw token; entries die with the token
+    private final ConcurrentHashMap<String, ParsedToken> verified = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void validateSecret() {
-        secretBytes = secret.getBytes(StandardCharsets.UTF_8);
+        byte[] secretBytes = secret.getBytes(StandardCharsets.UTF_8);
         if (secretBytes.length < 32) { // 256 bits
             throw new IllegalStateException("JWT secret must be at least 256 bits");
         }
+        signingKey = Keys.hmacShaKeyFor(secretBytes);
+        parser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretBytes);
+        return signingKey;
+    }
+
+    /**
+     * Verifies the token once and returns its claims. A token seen recently is
+     * served from memory without repeating the HMAC check until it expires.
+     */
+    public ParsedToken parse(String token) {
+        String key = cacheKey(token);
+        ParsedToken cached = verified.get(key);
+        if (cached != null) {
+            if (!cached.isExpired()) {
+                return cached;
+            }
+            verified.remove(key); // reparse below so the caller gets the usual ExpiredJwtException
+        }
+
+        ParsedToken parsed = ParsedToken.of(parser.parseSignedClaims(token).getPayload());
+        CacheEviction.makeRoom(verified, cacheMaxSize, ParsedToken::isExpired);
+        verified.put(key, parsed);
+        return parsed;
+    }
+
+    public int cachedTokens() {
+        return verified.size();
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parse(token).subject();
     }
 
     public Long extractUserId(String token) {
-        return extractClaim(token, claims -> {
-            Object userId = claims.get("userId");
-            if (userId instanceof Number) {
-                return ((Number) userId).longValue();
-            }
-            return null;
-        });
+        return parse(token).userId();
     }
 
     public String extractFirstName(String token) {
@@ -66,11 +98,11 @@ public class JwtUtil {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> (String) claims.get("role"));
+        return parse(token).role();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parse(token).expiration();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -79,15 +111,7 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return parse(token).claims();
     }
 
     public String generateToken(UserEntity user) {
@@ -98,6 +122,7 @@ public class JwtUtil {
         claims.put("lastName", user.getLastName());
         claims.put("role", user.getRole().toString());
         claims.put("registrationDate", user.getRegistrationDate().toString());
+        claims.put("tokenVersion", user.getTokenVersion());
         return createToken(claims, user.getEmail());
     }
 
@@ -118,7 +143,21 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parse(token), userDetails);
+    }
+
+    public Boolean validateToken(ParsedToken token, UserDetails userDetails) {
+        return token.subject().equals(userDetails.getUsername()) && !token.isExpired();
+    }
+
+    // ---------- helpers ----------
+
+    private static String cacheKey(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.gazi.ParkUs.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * A signature-verified JWT. Produced once per token by {@link JwtUtil#parse(String)}
+ * so callers read claims without re-verifying.
+ */
+public record ParsedToken(
+        String subject,
+        Long userId,
+        String role,
+        int tokenVersion,
+        Date issuedAt,
+        Date expiration,
+        Claims claims
+) {
+
+    static ParsedToken of(Claims claims) {
+        Object userId = claims.get("userId");
+        Object role = claims.get("role");
+        Object tokenVersion = claims.get("tokenVersion");
+        return new ParsedToken(
+                claims.getSubject(),
+                userId instanceof Number ? ((Number) userId).longValue() : null,
+                role instanceof String ? (String) role : null,
+                // Tokens issued before versions existed count as version 0
+                tokenVersion instanceof Number ? ((Number) tokenVersion).intValue() : 0,
+                claims.getIssuedAt(),
+                claims.getExpiration(),
+                claims
+        );
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
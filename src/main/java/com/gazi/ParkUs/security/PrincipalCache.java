@@ -0,0 +1,78 @@
+package com.gazi.ParkUs.security;
+
+import com.gazi.ParkUs.User.UserRole;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, TTL-evicting cache of the user data needed to authenticate a request,
+ * keyed by email. Entries expire after {@code principal.cache.ttl} milliseconds
+ * and the least recently used entry is dropped once {@code principal.cache.max-size}
+ * is reached. Admin changes to a user invalidate the entry explicitly.
+ */
+@Component
+public class PrincipalCache {
+
+    public record CachedPrincipal(Long userId, String email, UserRole role, String passwordHash) {
+    }
+
+    private record Entry(CachedPrincipal principal, long expiresAt) {
+    }
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public PrincipalCache(
+            @Value("${principal.cache.max-size:10000}") int maxSize,
+            @Value("${principal.cache.ttl:300000}") long ttlMillis
+    ) {
+        this.ttlMillis = ttlMillis;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized CachedPrincipal get(String email) {
+        Entry entry = entries.get(email);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            entries.remove(email);
+            return null;
+        }
+        return entry.principal();
+    }
+
+    public synchronized void put(CachedPrincipal principal) {
+        entries.put(principal.email(), new Entry(principal, System.currentTimeMillis() + ttlMillis));
+    }
+
+    /**
+     * Drops the entry now and again once the current transaction completes,
+     * so a request racing the change cannot re-cache the old row.
+     */
+    public void invalidate(String email) {
+        remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(email);
+                }
+            });
+        }
+    }
+
+    private synchronized void remove(String email) {
+        entries.remove(email);
+    }
+}
@@ -1,17 +1,29 @@
 package com.gazi.ParkUs.security;
 
-import com.gazi.ParkUs.entities.UserEntity;
+import com.gazi.ParkUs.exceptions.UnauthorizedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public class SecurityUtils {
 
-//    public static UserEntity currentUser() {
-//        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-//        return auth.getPrincipal();
-//    }
-public static String currentUserEmail() {
-    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-    return auth.getName(); // email
-}
+    public static String currentUserEmail() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth.getName(); // email
+    }
+
+    public static AuthenticatedUser currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedUser user)) {
+            throw new UnauthorizedException("User not authenticated");
+        }
+        return user;
+    }
+
+    public static Long currentUserId() {
+        return currentUser().getUserId();
+    }
+
+    public static boolean isAdmin() {
+        return currentUser().isAdmin();
+    }
 }
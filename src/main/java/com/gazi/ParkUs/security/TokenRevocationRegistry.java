@@ -0,0 +1,77 @@
+package com.gazi.ParkUs.security;
+
+import com.gazi.ParkUs.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides whether a stateless JWT is still trusted, consulted instead of reloading the user.
+ *
+ * Every user row carries a {@code token_version} that is copied into the tokens it is
+ * issued. Changing a user's profile or role bumps the version, so all earlier tokens
+ * are rejected on every instance and across restarts; a deleted user has no version
+ * and none of their tokens pass. Versions are cached for {@code jwt.version-cache.ttl}
+ * milliseconds, which bounds how long another instance may accept a revoked token.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    // version == null: the user no longer exists
+    private record Entry(Integer version, long expiresAt) {
+    }
+
+    private final UserRepository userRepo;
+    private final long ttlMillis;
+    private final int maxSize;
+    private final ConcurrentHashMap<Long, Entry> versions = new ConcurrentHashMap<>();
+
+    public TokenRevocationRegistry(
+            UserRepository userRepo,
+            @Value("${jwt.version-cache.ttl:30000}") long ttlMillis,
+            @Value("${jwt.cache.max-size:10000}") int maxSize
+    ) {
+        this.userRepo = userRepo;
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Forgets the cached version now and again once the current transaction
+     * completes, so the next check reads the version the caller just bumped.
+     */
+    public void revokeUser(Long userId) {
+        versions.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    versions.remove(userId);
+                }
+            });
+        }
+    }
+
+    public boolean isRevoked(Long userId, int tokenVersion) {
+        Integer current = currentVersion(userId);
+        return current == null || tokenVersion < current;
+    }
+
+    // ---------- helpers ----------
+
+    private Integer currentVersion(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(userId);
+        if (entry != null && entry.expiresAt() >= now) {
+            return entry.version();
+        }
+
+        Integer version = userRepo.findTokenVersion(userId).orElse(null);
+        CacheEviction.makeRoom(versions, maxSize, e -> e.expiresAt() < now);
+        versions.put(userId, new Entry(version, now + ttlMillis));
+        return version;
+    }
+}
@@ -3,16 +3,24 @@ package com.gazi.ParkUs.services;
 import com.gazi.ParkUs.User.UserRole;
 import com.gazi.ParkUs.dto.*;
 import com.gazi.ParkUs.entities.*;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import com.gazi.ParkUs.events.SpotChangedEvent;
 import com.gazi.ParkUs.exceptions.InvalidRequestException;
 import com.gazi.ParkUs.exceptions.ResourceNotFoundException;
 import com.gazi.ParkUs.repositories.*;
+import com.gazi.ParkUs.security.PrincipalCache;
+import com.gazi.ParkUs.security.TokenRevocationRegistry;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,23 +30,35 @@ public class AdminService {
     private final BookingRepository bookingRepo;
     private final ParkingSpotRepository spotRepo;
     private final SpotAvailabilityRepository availabilityRepo;
-    private final BookingLogRepository bookingLogRepo;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher events;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocations;
+    private final BookingLogRepository bookingLogRepo;
+    private final PricingEngine pricing;
 
     public AdminService(
             UserRepository userRepo,
             BookingRepository bookingRepo,
             ParkingSpotRepository spotRepo,
             SpotAvailabilityRepository availabilityRepo,
+            PasswordEncoder passwordEncoder,
+            ApplicationEventPublisher events,
+            PrincipalCache principalCache,
+            TokenRevocationRegistry revocations,
             BookingLogRepository bookingLogRepo,
-            PasswordEncoder passwordEncoder
+            PricingEngine pricing
     ) {
         this.userRepo = userRepo;
         this.bookingRepo = bookingRepo;
         this.spotRepo = spotRepo;
         this.availabilityRepo = availabilityRepo;
-        this.bookingLogRepo = bookingLogRepo;
         this.passwordEncoder = passwordEncoder;
+        this.events = events;
+        this.principalCache = principalCache;
+        this.revocations = revocations;
+        this.bookingLogRepo = bookingLogRepo;
+        this.pricing = pricing;
     }
 
     // ============ USER MANAGEMENT ============
@@ -53,6 +73,11 @@ public class AdminService {
         UserEntity user = userRepo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
+        principalCache.invalidate(user.getEmail());
+        principalCache.invalidate(dto.getEmail());
+        user.revokeTokens();
+        revocations.revokeUser(userId);
+
         user.setFirstName(dto.getFirstName());
         user.setLastName(dto.getLastName());
         user.setEmail(dto.getEmail());
@@ -68,7 +93,13 @@ public class AdminService {
     public void deleteUser(Long userId) {
         UserEntity user = userRepo.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        // Owned spots go with the user via ON DELETE CASCADE
+        List<ParkingSpot> ownedSpots = spotRepo.findByOwner_UserId(userId);
         userRepo.delete(user);
+        principalCache.invalidate(user.getEmail());
+        revocations.revokeUser(userId);
+        ownedSpots.forEach(spot -> events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.DELETED, spot)));
     }
 
     public void changeUserRole(Long userId, String roleStr) {
@@ -83,7 +114,10 @@ public class AdminService {
         }
 
         user.setRole(role);
+        user.revokeTokens();
         userRepo.save(user);
+        principalCache.invalidate(user.getEmail());
+        revocations.revokeUser(userId);
     }
 
     // ============ BOOKING MANAGEMENT ============
@@ -97,16 +131,30 @@ public class AdminService {
             SpotAvailability newAvailability = availabilityRepo.findById(dto.getAvailabilityId())
                     .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
 
+            // Only a live booking holds slots; moving a cancelled or completed one would book a slot for nobody
+            if (!List.of("pending", "confirmed").contains(booking.getStatus().toLowerCase())) {
+                throw new InvalidRequestException("Only pending or confirmed bookings can be moved");
+            }
+
             if (Boolean.TRUE.equals(newAvailability.getIsBooked())) {
                 throw new InvalidRequestException("New availability slot is already booked");
             }
 
-            // Unbook old availability
-            booking.getAvailability().setIsBooked(false);
+            // Unbook every slot of the old window
+            for (SpotAvailability old : availabilityRepo.findBookedWithin(
+                    booking.getSpot().getSpotId(), booking.getStartTime(), booking.getEndTime())) {
+                old.setIsBooked(false);
+                events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.FREED, old));
+            }
 
-            // Book new availability
+            // Book new availability; an admin move overrides any hold on it
             newAvailability.setIsBooked(true);
+            newAvailability.setHeldBy(null);
+            newAvailability.setHoldExpiresAt(null);
             booking.setAvailability(newAvailability);
+            booking.setStartTime(newAvailability.getStartTime());
+            booking.setEndTime(newAvailability.getEndTime());
+            events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.BOOKED, newAvailability));
         }
 
         // Update renter if changed
@@ -117,11 +165,11 @@ public class AdminService {
         }
 
         // Recalculate total amount
-        long hours = ChronoUnit.HOURS.between(
-                booking.getAvailability().getStartTime(),
-                booking.getAvailability().getEndTime()
-        );
-        BigDecimal total = booking.getSpot().getPricePerHour().multiply(BigDecimal.valueOf(hours));
+        BigDecimal total = pricing.quote(
+                booking.getSpot().getPricePerHour(),
+                booking.getStartTime(),
+                booking.getEndTime()
+        ).total();
         booking.setTotalAmount(total);
 
         bookingRepo.save(booking);
@@ -151,6 +199,7 @@ public class AdminService {
         spot.setPricePerHour(dto.getPricePerHour());
 
         spotRepo.save(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.CREATED, spot));
         return toSpotDto(spot);
     }
 
@@ -177,6 +226,7 @@ public class AdminService {
         }
 
         spotRepo.save(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.UPDATED, spot));
         return toSpotDto(spot);
     }
 
@@ -184,6 +234,7 @@ public class AdminService {
         ParkingSpot spot = spotRepo.findById(spotId)
                 .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found"));
         spotRepo.delete(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.DELETED, spot));
     }
 
     // ============ AVAILABILITY MANAGEMENT ============
@@ -199,6 +250,7 @@ public class AdminService {
         availability.setIsBooked(false);
 
         availabilityRepo.save(availability);
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.CREATED, availability));
         return toAvailabilityDto(availability);
     }
 
@@ -210,6 +262,7 @@ public class AdminService {
         availability.setEndTime(dto.getEndTime());
 
         availabilityRepo.save(availability);
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.UPDATED, availability));
         return toAvailabilityDto(availability);
     }
 
@@ -222,6 +275,27 @@ public class AdminService {
         }
 
         availabilityRepo.delete(availability);
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.DELETED, availability));
+    }
+
+    // ============ BOOKING LOG EXPORT ============
+
+    public void validateExportRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidRequestException("from must be before to");
+        }
+    }
+
+    /**
+     * Feeds every log row in [from, to), optionally for one owner or spot, to the sink
+     * in logged order. Rows come off a database cursor one at a time.
+     */
+    public void exportBookingLogs(LocalDateTime from, LocalDateTime to, Long ownerId, Long spotId,
+                                  Consumer<BookingLogDTO> sink) {
+        validateExportRange(from, to);
+        try (Stream<BookingLogDTO> rows = bookingLogRepo.streamLogsBetween(from, to, ownerId, spotId)) {
+            rows.forEach(sink);
+        }
     }
 
     // ============ HELPER METHODS ============
@@ -244,8 +318,8 @@ public class AdminService {
         dto.setOwnerId(booking.getSpot().getOwner().getUserId());
         dto.setStatus(booking.getStatus());
         dto.setTotalAmount(booking.getTotalAmount());
-        dto.setStartTime(booking.getAvailability().getStartTime());
-        dto.setEndTime(booking.getAvailability().getEndTime());
+        dto.setStartTime(booking.getStartTime());
+        dto.setEndTime(booking.getEndTime());
         return dto;
     }
 
@@ -270,27 +344,12 @@ public class AdminService {
         dto.setStartTime(availability.getStartTime());
         dto.setEndTime(availability.getEndTime());
         dto.setIsBooked(availability.getIsBooked());
+        dto.setHeldUntil(availability.isHeldAt(LocalDateTime.now()) ? availability.getHoldExpiresAt() : null);
         return dto;
     }
 
     private void logBooking(Booking booking) {
-        SpotAvailability a = booking.getAvailability();
-
-        BookingLog log = new BookingLog();
-        log.setBookingId(booking.getBookingId());
-        log.setSpotId(booking.getSpot().getSpotId());
-        log.setOwnerId(booking.getSpot().getOwner().getUserId());
-        log.setRenterId(booking.getRenter().getUserId());
-        log.setStartTime(a.getStartTime());
-        log.setEndTime(a.getEndTime());
-        log.setDurationHours(
-                BigDecimal.valueOf(
-                        ChronoUnit.HOURS.between(a.getStartTime(), a.getEndTime())
-                )
-        );
-        log.setTotalAmount(booking.getTotalAmount());
-        log.setBookingStatus(booking.getStatus());
-
-        bookingLogRepo.save(log);
+        // Written after commit by BookingLogWriter
+        events.publishEvent(BookingChangedEvent.of(booking));
     }
 }
@@ -0,0 +1,90 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.AvailabilityDeltaDto;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pushes committed slot changes to STOMP subscribers of
+ * {@code /topic/spots/{spotId}/availability} and
+ * {@code /topic/tiles/{tile}/availability}.
+ *
+ * Changes are buffered and flushed every {@code ws.availability.flush-interval}
+ * milliseconds. Only the latest change per slot survives a window, and each
+ * topic receives one message per flush, so a bulk publish arrives as a few
+ * batched frames instead of one frame per slot.
+ */
+@Component
+public class AvailabilityBroadcaster {
+
+    static final double TILE_DEGREES = 0.1; // ~11 km of latitude
+    private static final int MAX_DELTAS_PER_MESSAGE = 500;
+
+    private final SimpMessagingTemplate messaging;
+    private final SpotGeoIndex geoIndex;
+
+    // Keyed by availabilityId; re-inserted on change so iteration follows the latest update
+    private final Map<Long, AvailabilityDeltaDto> pending = new LinkedHashMap<>();
+
+    public AvailabilityBroadcaster(SimpMessagingTemplate messaging, SpotGeoIndex geoIndex) {
+        this.messaging = messaging;
+        this.geoIndex = geoIndex;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        pending.remove(event.availabilityId());
+        pending.put(event.availabilityId(), new AvailabilityDeltaDto(
+                event.type().name(),
+                event.availabilityId(),
+                event.spotId(),
+                event.startTime(),
+                event.endTime()
+        ));
+    }
+
+    @Scheduled(fixedDelayString = "${ws.availability.flush-interval:250}")
+    public void flush() {
+        List<AvailabilityDeltaDto> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        Map<String, List<AvailabilityDeltaDto>> byTopic = new LinkedHashMap<>();
+        for (AvailabilityDeltaDto delta : batch) {
+            byTopic.computeIfAbsent("/topic/spots/" + delta.getSpotId() + "/availability", t -> new ArrayList<>())
+                    .add(delta);
+
+            double[] position = geoIndex.coordinates(delta.getSpotId());
+            if (position != null) {
+                byTopic.computeIfAbsent("/topic/tiles/" + tileOf(position[0], position[1]) + "/availability",
+                        t -> new ArrayList<>()).add(delta);
+            }
+        }
+
+        byTopic.forEach((topic, deltas) -> {
+            for (int i = 0; i < deltas.size(); i += MAX_DELTAS_PER_MESSAGE) {
+                messaging.convertAndSend(topic, deltas.subList(i, Math.min(i + MAX_DELTAS_PER_MESSAGE, deltas.size())));
+            }
+        });
+    }
+
+    /** Tile id {@code latIndex-lngIndex} on a fixed 0.1 degree grid. */
+    public static String tileOf(double lat, double lng) {
+        long latIndex = (long) Math.floor((lat + 90.0) / TILE_DEGREES);
+        long lngIndex = (long) Math.floor((lng + 180.0) / TILE_DEGREES);
+        return latIndex + "-" + lngIndex;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory index of upcoming availability windows per spot, used to reject
+ * overlapping slots before any row lock is taken.
+ *
+ * Each spot is loaded lazily on first use and then kept in sync from
+ * committed {@link AvailabilityChangedEvent}s. The database stays the source
+ * of truth: a miss here still goes through the locked overlap query.
+ */
+@Component
+public class AvailabilityIntervalIndex {
+
+    private final SpotAvailabilityRepository availabilityRepo;
+
+    private final ConcurrentHashMap<Long, SpotIntervals> bySpot = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public AvailabilityIntervalIndex(SpotAvailabilityRepository availabilityRepo) {
+        this.availabilityRepo = availabilityRepo;
+    }
+
+    public boolean overlaps(Long spotId, LocalDateTime start, LocalDateTime end) {
+        return intervalsFor(spotId).overlaps(start, end);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        // Bump the version first so a snapshot loaded concurrently is not installed stale
+        version(event.spotId()).incrementAndGet();
+        bySpot.computeIfPresent(event.spotId(), (id, intervals) -> {
+            intervals.apply(event);
+            return intervals;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpotChanged(SpotChangedEvent event) {
+        if (event.type() == SpotChangedEvent.Type.DELETED) {
+            // Availability rows are removed by ON DELETE CASCADE, without their own events
+            version(event.spotId()).incrementAndGet();
+            bySpot.remove(event.spotId());
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private SpotIntervals intervalsFor(Long spotId) {
+        SpotIntervals cached = bySpot.get(spotId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long versionAtLoad = version(spotId).get();
+        SpotIntervals loaded = new SpotIntervals();
+        // New slots must start in the future, so windows that already ended can never overlap them
+        for (Object[] row : availabilityRepo.findIntervalsBySpot(spotId, LocalDateTime.now())) {
+            loaded.add((Long) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2]);
+        }
+
+        SpotIntervals installed = bySpot.compute(spotId, (id, current) -> {
+            if (current != null) {
+                return current;
+            }
+            return version(spotId).get() == versionAtLoad ? loaded : null;
+        });
+        return installed != null ? installed : loaded;
+    }
+
+    private AtomicLong version(Long spotId) {
+        return versions.computeIfAbsent(spotId, id -> new AtomicLong());
+    }
+
+    private record Interval(long availabilityId, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private static final class SpotIntervals {
+
+        private static final Comparator<Interval> ORDER = Comparator
+                .comparing(Interval::start)
+                .thenComparingLong(Interval::availabilityId);
+
+        private final TreeSet<Interval> sorted = new TreeSet<>(ORDER);
+        private final Map<Long, Interval> byId = new HashMap<>();
+
+        synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            // Latest window starting before the new end; it overlaps iff it ends after the new start
+            Interval candidate = sorted.lower(new Interval(Long.MIN_VALUE, end, end));
+            return candidate != null && candidate.end().isAfter(start);
+        }
+
+        synchronized void add(Long availabilityId, LocalDateTime start, LocalDateTime end) {
+            remove(availabilityId);
+            Interval interval = new Interval(availabilityId, start, end);
+            sorted.add(interval);
+            byId.put(availabilityId, interval);
+        }
+
+        synchronized void remove(Long availabilityId) {
+            Interval existing = byId.remove(availabilityId);
+            if (existing != null) {
+                sorted.remove(existing);
+            }
+        }
+
+        synchronized void apply(AvailabilityChangedEvent event) {
+            switch (event.type()) {
+                case CREATED, UPDATED -> add(event.availabilityId(), event.startTime(), event.endTime());
+                case DELETED -> remove(event.availabilityId());
+                case BOOKED, FREED, HELD, RELEASED -> {
+                    // booking and hold state do not move the window
+                }
+            }
+        }
+    }
+}
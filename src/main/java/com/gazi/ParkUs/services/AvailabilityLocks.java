@@ -0,0 +1,48 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The row-locking availability queries, timed. Most of their latency is time
+ * spent waiting for another transaction's lock, published as
+ * {@code parkus.availability.lock} tagged by query.
+ */
+@Component
+public class AvailabilityLocks {
+
+    private final SpotAvailabilityRepository availabilityRepo;
+    private final Timer lockByIdTimer;
+    private final Timer overlappingTimer;
+
+    public AvailabilityLocks(SpotAvailabilityRepository availabilityRepo, MeterRegistry registry) {
+        this.availabilityRepo = availabilityRepo;
+        this.lockByIdTimer = lockTimer(registry, "lockById");
+        this.overlappingTimer = lockTimer(registry, "findOverlapping");
+    }
+
+    public Optional<SpotAvailability> lockById(Long id) {
+        return lockByIdTimer.record(() -> availabilityRepo.lockById(id));
+    }
+
+    public List<SpotAvailability> findOverlapping(Long spotId, LocalDateTime startTime, LocalDateTime endTime) {
+        return overlappingTimer.record(() -> availabilityRepo.findOverlapping(spotId, startTime, endTime));
+    }
+
+    // ---------- helpers ----------
+
+    private static Timer lockTimer(MeterRegistry registry, String query) {
+        return Timer.builder("parkus.availability.lock")
+                .description("Row-locking availability queries, including lock wait")
+                .tag("query", query)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,275 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import com.gazi.ParkUs.repositories.BookingRepository;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+/**
+ * Moves confirmed bookings to {@code completed} once their window has ended and
+ * deletes unbooked slots that have started without ever being booked.
+ *
+ * Each kind of item waits in a min-heap ordered by due time. A heap is primed
+ * from an indexed range query covering the next {@code expiry.horizon}; items
+ * created inside an already primed range arrive through after-commit events.
+ * Every run pops only what is due and applies it with one set-based statement
+ * per batch, so the cost follows the number of due items rather than the size
+ * of the tables. Completed bookings reach the audit log in batches.
+ */
+@Component
+public class BookingExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingExpiryScheduler.class);
+
+    // Lower bound for the first priming query, so an outstanding backlog is picked up too
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final BookingRepository bookingRepo;
+    private final SpotAvailabilityRepository availabilityRepo;
+    private final BookingLogWriter bookingLogWriter;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate transactions;
+    private final Duration horizon;
+    private final int batchSize;
+    private final int maxQueued;
+    private final boolean closeStaleSlots;
+
+    private final Lane bookings;
+    private final Lane slots;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong closedSlots = new AtomicLong();
+
+    public BookingExpiryScheduler(
+            BookingRepository bookingRepo,
+            SpotAvailabilityRepository availabilityRepo,
+            BookingLogWriter bookingLogWriter,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${expiry.horizon:3600000}") long horizonMillis,
+            @Value("${expiry.batch-size:500}") int batchSize,
+            @Value("${expiry.max-queued:50000}") int maxQueued,
+            @Value("${expiry.close-stale-slots:true}") boolean closeStaleSlots
+    ) {
+        this.bookingRepo = bookingRepo;
+        this.availabilityRepo = availabilityRepo;
+        this.bookingLogWriter = bookingLogWriter;
+        this.events = events;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.horizon = Duration.ofMillis(horizonMillis);
+        this.batchSize = batchSize;
+        this.maxQueued = maxQueued;
+        this.closeStaleSlots = closeStaleSlots;
+        this.bookings = new Lane(bookingRepo::findConfirmedEndingBetween);
+        this.slots = new Lane(availabilityRepo::findUnbookedStartingBetween);
+    }
+
+    private record Due(Long id, LocalDateTime at) {}
+
+    /** Indexed range query returning (id, due time) rows ordered by due time. */
+    @FunctionalInterface
+    private interface Loader {
+        List<Object[]> load(LocalDateTime from, LocalDateTime to, Limit limit);
+    }
+
+    public record Stats(int queuedBookings, int queuedSlots, long completed, long closedSlots,
+                        LocalDateTime bookingsPrimedUntil, LocalDateTime slotsPrimedUntil) {}
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if ("confirmed".equalsIgnoreCase(event.status())) {
+            bookings.offer(event.bookingId(), event.endTime());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        if (!closeStaleSlots) {
+            return;
+        }
+        switch (event.type()) {
+            case CREATED, UPDATED, FREED -> slots.offer(event.availabilityId(), event.startTime());
+            default -> {
+                // other changes do not make a slot due; stale heap entries are filtered when applied
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${expiry.interval:5000}")
+    public void run() {
+        LocalDateTime now = LocalDateTime.now();
+        int completedNow = drain(bookings, now, this::completeBookings);
+        int closedNow = closeStaleSlots ? drain(slots, now, this::closeSlots) : 0;
+        if (completedNow > 0 || closedNow > 0) {
+            log.info("Expiry: completed {} bookings, closed {} stale slots", completedNow, closedNow);
+        }
+    }
+
+    public Stats stats() {
+        synchronized (bookings) {
+            synchronized (slots) {
+                return new Stats(bookings.heap.size(), slots.heap.size(), completed.get(), closedSlots.get(),
+                        bookings.primedUntil, slots.primedUntil);
+            }
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private int drain(Lane lane, LocalDateTime now, BiFunction<List<Long>, LocalDateTime, Integer> apply) {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+            lane.primeIfNeeded(now);
+            List<Long> due = lane.takeDue(now, batchSize);
+            if (due.isEmpty()) {
+                break;
+            }
+            total += apply.apply(due, now);
+        }
+        return total;
+    }
+
+    private int completeBookings(List<Long> ids, LocalDateTime now) {
+        LocalDateTime loggedAt = LocalDateTime.now();
+        List<BookingChangedEvent> entries = transactions.execute(status -> {
+            List<Object[]> rows = bookingRepo.findEndedConfirmed(ids, now);
+            if (rows.isEmpty()) {
+                return List.<BookingChangedEvent>of();
+            }
+            List<Long> candidates = rows.stream().map(r -> (Long) r[0]).toList();
+            int updated = bookingRepo.markCompleted(candidates);
+
+            // A concurrent status change between the read and the update: log only what this run completed
+            Set<Long> done = updated == candidates.size()
+                    ? new HashSet<>(candidates)
+                    : new HashSet<>(bookingRepo.findIdsWithStatus(candidates, "completed"));
+
+            List<BookingChangedEvent> changed = new ArrayList<>(done.size());
+            for (Object[] r : rows) {
+                if (done.contains((Long) r[0])) {
+                    changed.add(new BookingChangedEvent((Long) r[0], (Long) r[1], (Long) r[2], (Long) r[3],
+                            (Long) r[4], (LocalDateTime) r[5], (LocalDateTime) r[6], (BigDecimal) r[7],
+                            "completed", loggedAt));
+                }
+            }
+            return changed;
+        });
+
+        // Committed: the audit log and rollups take the whole batch in one write
+        if (!entries.isEmpty()) {
+            bookingLogWriter.writeAll(entries);
+            completed.addAndGet(entries.size());
+        }
+        return entries.size();
+    }
+
+    private int closeSlots(List<Long> ids, LocalDateTime now) {
+        int closed = transactions.execute(status -> {
+            List<SpotAvailability> stale = availabilityRepo.findStale(ids, now);
+            if (stale.isEmpty()) {
+                return 0;
+            }
+            List<Long> candidates = stale.stream().map(SpotAvailability::getAvailabilityId).toList();
+            int deleted = availabilityRepo.deleteUnbooked(candidates);
+
+            Set<Long> remaining = deleted == candidates.size()
+                    ? Set.of()
+                    : new HashSet<>(availabilityRepo.findExistingIds(candidates));
+            for (SpotAvailability availability : stale) {
+                if (!remaining.contains(availability.getAvailabilityId())) {
+                    // After commit: drops the slot from the interval index and tells subscribers
+                    events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.DELETED, availability));
+                }
+            }
+            return stale.size() - remaining.size();
+        });
+        closedSlots.addAndGet(closed);
+        return closed;
+    }
+
+    /**
+     * One min-heap of due items plus the end of the range already loaded into it.
+     * Items due before {@code primedUntil} are only seen through {@link #offer}.
+     */
+    private final class Lane {
+
+        private final Loader loader;
+        private final PriorityQueue<Due> heap = new PriorityQueue<>(Comparator.comparing(Due::at));
+        private LocalDateTime primedUntil = EPOCH;
+
+        Lane(Loader loader) {
+            this.loader = loader;
+        }
+
+        synchronized void offer(Long id, LocalDateTime at) {
+            // Beyond the primed range the next priming query finds it
+            if (at == null || !at.isBefore(primedUntil)) {
+                return;
+            }
+            if (heap.size() < maxQueued) {
+                heap.add(new Due(id, at));
+            } else {
+                // Full: rewind so the next priming query reloads it once there is room
+                primedUntil = at;
+            }
+        }
+
+        synchronized List<Long> takeDue(LocalDateTime now, int max) {
+            // A set: one item offered twice (e.g. by the query and an event) is applied once
+            Set<Long> due = new LinkedHashSet<>();
+            while (due.size() < max && !heap.isEmpty() && !heap.peek().at().isAfter(now)) {
+                due.add(heap.poll().id());
+            }
+            return new ArrayList<>(due);
+        }
+
+        void primeIfNeeded(LocalDateTime now) {
+            LocalDateTime from;
+            LocalDateTime to = now.plus(horizon);
+            int room;
+            synchronized (this) {
+                // Refill once half the horizon is used up, and only when there is room
+                room = maxQueued - heap.size();
+                if (primedUntil.isAfter(now.plus(horizon.dividedBy(2))) || room <= 0) {
+                    return;
+                }
+                from = primedUntil;
+                // Advanced before the query: anything committed after its snapshot arrives through offer()
+                primedUntil = to;
+            }
+
+            List<Object[]> rows = loader.load(from, to, Limit.of(room));
+            synchronized (this) {
+                for (Object[] row : rows) {
+                    heap.add(new Due((Long) row[0], (LocalDateTime) row[1]));
+                }
+                if (rows.size() >= room) {
+                    // Truncated: resume after the last loaded item
+                    LocalDateTime last = (LocalDateTime) rows.get(rows.size() - 1)[1];
+                    if (last.isBefore(primedUntil)) {
+                        primedUntil = last;
+                    }
+                }
+            }
+        }
+    }
+}
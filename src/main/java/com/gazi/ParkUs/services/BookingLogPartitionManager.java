@@ -0,0 +1,145 @@
+package com.gazi.ParkUs.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of {@code bookinglog}.
+ *
+ * Partitions {@code bookinglog_yYYYYmMM} are created {@code booking-log.partitions.months-ahead}
+ * months in advance so inserts never fall into the default partition, and
+ * months older than {@code booking-log.retention-months} are detached and
+ * dropped. Runs at startup and daily; does nothing unless the table is
+ * actually partitioned (e.g. on H2 or before the migration).
+ */
+@Component
+public class BookingLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLogPartitionManager.class);
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("^bookinglog_y(\\d{4})m(\\d{2})$");
+
+    private static final String IS_PARTITIONED_SQL = """
+        SELECT COUNT(*) FROM pg_partitioned_table pt
+        JOIN pg_class c ON c.oid = pt.partrelid
+        WHERE c.relname = 'bookinglog'
+    """;
+
+    private static final String LIST_PARTITIONS_SQL = """
+        SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'bookinglog'
+        ORDER BY c.relname
+    """;
+
+    private final JdbcTemplate jdbc;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    private volatile Boolean partitioned;
+
+    public BookingLogPartitionManager(
+            JdbcTemplate jdbc,
+            @Value("${booking-log.partitions.months-ahead:3}") int monthsAhead,
+            @Value("${booking-log.retention-months:24}") int retentionMonths
+    ) {
+        this.jdbc = jdbc;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    public record Stats(boolean partitioned, List<String> partitions, int monthsAhead, int retentionMonths) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${booking-log.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        if (retentionMonths > 0) {
+            dropPartitionsBefore(current.minusMonths(retentionMonths));
+        }
+    }
+
+    /** First day still covered by the log, or null when nothing is dropped. */
+    public LocalDate retainedSince() {
+        if (retentionMonths <= 0 || !isPartitioned()) {
+            return null;
+        }
+        return YearMonth.now().minusMonths(retentionMonths).atDay(1);
+    }
+
+    public Stats stats() {
+        boolean active = isPartitioned();
+        List<String> partitions = active ? jdbc.queryForList(LIST_PARTITIONS_SQL, String.class) : List.of();
+        return new Stats(active, partitions, monthsAhead, retentionMonths);
+    }
+
+    // ---------- helpers ----------
+
+    private boolean isPartitioned() {
+        Boolean known = partitioned;
+        if (known == null) {
+            try {
+                known = jdbc.queryForObject(IS_PARTITIONED_SQL, Long.class) > 0;
+            } catch (RuntimeException e) {
+                known = false; // not Postgres
+            }
+            if (!known) {
+                log.info("bookinglog is not partitioned; partition maintenance disabled");
+            }
+            partitioned = known;
+        }
+        return known;
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        // Identifiers and bounds are generated here, never taken from input
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF bookinglog FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void dropPartitionsBefore(YearMonth oldestKept) {
+        List<String> expired = new ArrayList<>();
+        for (String name : jdbc.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (m.matches()
+                    && YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))).isBefore(oldestKept)) {
+                expired.add(name);
+            }
+        }
+        for (String name : expired) {
+            jdbc.execute("ALTER TABLE bookinglog DETACH PARTITION " + name);
+            jdbc.execute("DROP TABLE " + name);
+            log.info("Dropped booking log partition {} (retention {} months)", name, retentionMonths);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("bookinglog_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
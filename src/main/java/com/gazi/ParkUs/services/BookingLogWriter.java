@@ -0,0 +1,295 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind pipeline for the booking audit log.
+ *
+ * Committed {@link BookingChangedEvent}s are queued and a single writer thread
+ * flushes them as JDBC batch inserts once {@code booking-log.batch-size} entries
+ * are waiting or {@code booking-log.flush-interval} has passed. When the queue is
+ * full the caller writes its entry directly, so load slows down instead of
+ * dropping rows. On shutdown the queue is drained before the context closes.
+ * Each batch also updates the owner dashboard rollups in the same transaction
+ * (see {@link SpotDailyRollups}).
+ *
+ * A batch that fails to flush is never discarded: the writer retries it with
+ * exponential backoff, capped at {@code booking-log.max-retry-backoff}, until
+ * the database accepts it. While it is failing, entries that cannot be queued
+ * wait in an overflow queue bounded by {@code booking-log.overflow-capacity}.
+ * When that is full too, callers block for up to {@code booking-log.overflow-wait}
+ * for room; past that an entry is rejected and logged in full for replay, so
+ * memory stays bounded through an outage. Entries still pending when the
+ * process exits are logged as lost.
+ */
+@Component
+public class BookingLogWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLogWriter.class);
+
+    private static final String INSERT_SQL = """
+        INSERT INTO bookinglog (booking_id, spot_id, owner_id, renter_id, start_time, end_time,
+                                duration_hours, total_amount, booking_status, logged_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private final JdbcTemplate jdbc;
+    private final SpotDailyRollups rollups;
+    private final BlockingQueue<BookingChangedEvent> queue;
+    // Spilled past a full queue or a failed direct write; drained by the worker after the queue
+    private final BlockingQueue<BookingChangedEvent> overflow;
+    private final long overflowWaitMillis;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long maxRetryBackoffMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong syncWrites = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private volatile boolean running;
+    // Set while the worker is retrying a failed batch; cleared by its next successful flush
+    private volatile boolean degraded;
+    private volatile int inFlight;
+    private Thread worker;
+
+    public BookingLogWriter(
+            JdbcTemplate jdbc,
+            SpotDailyRollups rollups,
+            @Value("${booking-log.queue-capacity:10000}") int queueCapacity,
+            @Value("${booking-log.overflow-capacity:50000}") int overflowCapacity,
+            @Value("${booking-log.overflow-wait:5000}") long overflowWaitMillis,
+            @Value("${booking-log.batch-size:200}") int batchSize,
+            @Value("${booking-log.flush-interval:500}") long flushIntervalMillis,
+            @Value("${booking-log.max-retry-backoff:30000}") long maxRetryBackoffMillis,
+            @Value("${booking-log.shutdown-timeout:30000}") long shutdownTimeoutMillis
+    ) {
+        this.jdbc = jdbc;
+        this.rollups = rollups;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflow = new LinkedBlockingQueue<>(overflowCapacity);
+        this.overflowWaitMillis = overflowWaitMillis;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxRetryBackoffMillis = Math.max(maxRetryBackoffMillis, flushIntervalMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    public record Stats(
+            long enqueued,
+            long written,
+            long batches,
+            long syncWrites,
+            long failedFlushes,
+            long rejected,
+            int awaitingRetry,
+            boolean degraded,
+            int queueDepth,
+            int remainingCapacity
+    ) {
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::drainLoop, "booking-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        worker.join(shutdownTimeoutMillis);
+        if (worker.isAlive()) {
+            log.error("Booking log writer did not drain within {} ms, {} entries pending and lost: {} {}",
+                    shutdownTimeoutMillis, pending(), queue, overflow);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (running && queue.offer(event)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        // Backpressure (or shutting down): write on the caller's thread unless the database is failing
+        if (!degraded) {
+            syncWrites.incrementAndGet();
+            if (tryFlush(List.of(event))) {
+                return;
+            }
+        }
+        retryLater(List.of(event));
+    }
+
+    /**
+     * Writes already-committed entries in batches on the caller's thread,
+     * bypassing the queue. For background jobs that change many bookings at once.
+     */
+    public void writeAll(List<BookingChangedEvent> entries) {
+        for (int i = 0; i < entries.size(); i += batchSize) {
+            List<BookingChangedEvent> chunk = entries.subList(i, Math.min(i + batchSize, entries.size()));
+            if (degraded || !tryFlush(chunk)) {
+                retryLater(chunk);
+            }
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(
+                enqueued.get(),
+                written.get(),
+                batches.get(),
+                syncWrites.get(),
+                failedFlushes.get(),
+                rejected.get(),
+                overflow.size() + (degraded ? inFlight : 0),
+                degraded,
+                queue.size(),
+                queue.remainingCapacity()
+        );
+    }
+
+    // ---------- helpers ----------
+
+    private void drainLoop() {
+        List<BookingChangedEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+            try {
+                fill(batch);
+                if (!batch.isEmpty()) {
+                    flushUntilWritten(batch);
+                }
+            } catch (InterruptedException e) {
+                running = false; // keep looping until the queue is empty
+            }
+            // Only reached once the batch is written
+            batch.clear();
+        }
+    }
+
+    private void fill(List<BookingChangedEvent> batch) throws InterruptedException {
+        // Do not idle on an empty queue while overflow entries are waiting
+        BookingChangedEvent first = queue.poll(overflow.isEmpty() ? flushIntervalMillis : 0, TimeUnit.MILLISECONDS);
+        if (first != null) {
+            batch.add(first);
+
+            long deadline = System.currentTimeMillis() + flushIntervalMillis;
+            while (batch.size() < batchSize && running) {
+                queue.drainTo(batch, batchSize - batch.size());
+                long remaining = deadline - System.currentTimeMillis();
+                if (batch.size() >= batchSize || remaining <= 0) {
+                    break;
+                }
+                BookingChangedEvent next = queue.poll(remaining, TimeUnit.MILLISECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+            // Shutting down: take whatever else is queued in the same round trip
+            if (!running) {
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+        }
+        for (BookingChangedEvent e; batch.size() < batchSize && (e = overflow.poll()) != null; ) {
+            batch.add(e);
+        }
+    }
+
+    /** Retries with exponential backoff until the batch is written; never gives up on it. */
+    private void flushUntilWritten(List<BookingChangedEvent> batch) {
+        inFlight = batch.size();
+        long backoff = flushIntervalMillis;
+        while (!tryFlush(batch)) {
+            degraded = true;
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                running = false; // keep retrying: the batch is still in hand
+            }
+            backoff = Math.min(backoff * 2, maxRetryBackoffMillis);
+        }
+        degraded = false;
+        inFlight = 0;
+    }
+
+    private boolean tryFlush(List<BookingChangedEvent> entries) {
+        try {
+            rollups.recordBatch(entries, this::insertLogs);
+            written.addAndGet(entries.size());
+            batches.incrementAndGet();
+            return true;
+        } catch (RuntimeException ex) {
+            failedFlushes.incrementAndGet();
+            log.warn("Booking log flush of {} entries failed; will retry", entries.size(), ex);
+            return false;
+        }
+    }
+
+    private void retryLater(List<BookingChangedEvent> entries) {
+        if (!worker.isAlive()) {
+            // Only after shutdown: nothing is left to retry them
+            log.error("Booking log writer stopped; {} entries lost: {}", entries.size(), entries);
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            boolean accepted;
+            try {
+                // Backpressure: the caller waits for the worker to make room
+                accepted = overflow.offer(entries.get(i), overflowWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                accepted = false;
+            }
+            if (!accepted) {
+                List<BookingChangedEvent> rest = entries.subList(i, entries.size());
+                rejected.addAndGet(rest.size());
+                log.error("Booking log overflow still full after {} ms; {} entries rejected: {}",
+                        overflowWaitMillis, rest.size(), rest);
+                return;
+            }
+        }
+    }
+
+    private int pending() {
+        return queue.size() + overflow.size() + inFlight;
+    }
+
+    private void insertLogs(List<BookingChangedEvent> entries) {
+        jdbc.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, e) -> {
+            ps.setLong(1, e.bookingId());
+            ps.setLong(2, e.spotId());
+            ps.setLong(3, e.ownerId());
+            ps.setLong(4, e.renterId());
+            ps.setTimestamp(5, Timestamp.valueOf(e.startTime()));
+            ps.setTimestamp(6, Timestamp.valueOf(e.endTime()));
+            ps.setBigDecimal(7, PricingEngine.durationHours(e.startTime(), e.endTime()));
+            ps.setBigDecimal(8, e.totalAmount());
+            ps.setString(9, e.status());
+            ps.setTimestamp(10, Timestamp.valueOf(e.occurredAt()));
+        });
+    }
+}
@@ -2,6 +2,7 @@ package com.gazi.ParkUs.services;
 
 import com.gazi.ParkUs.dto.BookingRequestDto;
 import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.dto.WindowBookingRequestDto;
 
 import java.util.List;
 
@@ -9,6 +10,8 @@ public interface BookingService {
 
     BookingResponseDto createBooking(BookingRequestDto dto);
 
+    BookingResponseDto createWindowBooking(WindowBookingRequestDto dto);
+
     BookingResponseDto getBookingById(Long id);
 
     List<BookingResponseDto> getBookingsByRenter(Long renterId);
@@ -3,8 +3,9 @@ package com.gazi.ParkUs.services;
 
 import com.gazi.ParkUs.entities.UserEntity;
 import com.gazi.ParkUs.repositories.UserRepository;
+import com.gazi.ParkUs.security.AuthenticatedUser;
+import com.gazi.ParkUs.security.PrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,24 +17,29 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 
+        PrincipalCache.CachedPrincipal cached = principalCache.get(email);
+        if (cached == null) {
+            UserEntity user = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
 
-        UserEntity user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
-
-
-//        String role = "ROLE_" + user.getRole().toString();
-        String role = user.getRole().toString();
-        System.out.println(role);
-
+            cached = new PrincipalCache.CachedPrincipal(
+                    user.getUserId(),
+                    user.getEmail(),
+                    user.getRole(),
+                    user.getPassword()
+            );
+            principalCache.put(cached);
+        }
 
-        return User.withUsername(user.getEmail())
-                .password(user.getPassword())
-                .authorities(role)
-                .build();
+        // A fresh principal per call: Spring Security erases credentials on the instance it returns
+        return new AuthenticatedUser(cached.userId(), cached.email(), cached.passwordHash(), cached.role());
 
     }
 
-}
\ No newline at end of file
+}
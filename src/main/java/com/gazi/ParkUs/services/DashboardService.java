@@ -0,0 +1,9 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.OwnerDashboardDto;
+
+import java.time.LocalDate;
+
+public interface DashboardService {
+    OwnerDashboardDto getOwnerDashboard(Long ownerId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,71 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.OwnerDashboardDto;
+import com.gazi.ParkUs.dto.SpotDailyRollupDto;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
+import com.gazi.ParkUs.exceptions.UnauthorizedException;
+import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import com.gazi.ParkUs.repositories.SpotDailyRollupRepository;
+import com.gazi.ParkUs.security.SecurityUtils;
+import jakarta.transaction.Transactional;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@Transactional
+public class DashboardServiceImpl implements DashboardService {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int MAX_DAYS = 366;
+
+    private final SpotDailyRollupRepository rollupRepo;
+    private final ParkingSpotRepository spotRepo;
+
+    public DashboardServiceImpl(SpotDailyRollupRepository rollupRepo, ParkingSpotRepository spotRepo) {
+        this.rollupRepo = rollupRepo;
+        this.spotRepo = spotRepo;
+    }
+
+    @Override
+    public OwnerDashboardDto getOwnerDashboard(Long ownerId, LocalDate from, LocalDate to) {
+        if (!SecurityUtils.isAdmin() && !SecurityUtils.currentUserId().equals(ownerId)) {
+            throw new UnauthorizedException("You can only view the dashboard for your own spots");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new InvalidRequestException("to must not be before from");
+        }
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        if (days > MAX_DAYS) {
+            throw new InvalidRequestException("Date range cannot exceed " + MAX_DAYS + " days");
+        }
+
+        // One row per spot per active day, read straight from the rollups
+        List<SpotDailyRollupDto> rows = rollupRepo.findDtosByOwnerBetween(ownerId, start, end);
+
+        BigDecimal revenue = BigDecimal.ZERO;
+        BigDecimal hours = BigDecimal.ZERO;
+        long bookings = 0;
+        long cancellations = 0;
+        for (SpotDailyRollupDto row : rows) {
+            revenue = revenue.add(row.getRevenue());
+            hours = hours.add(row.getBookedHours());
+            bookings += row.getBookings();
+            cancellations += row.getCancellations();
+        }
+
+        long spots = spotRepo.countByOwner_UserId(ownerId);
+        BigDecimal occupancy = spots == 0
+                ? BigDecimal.ZERO
+                : hours.divide(BigDecimal.valueOf(24 * days * spots), 4, RoundingMode.HALF_UP);
+
+        return new OwnerDashboardDto(ownerId, start, end, revenue, hours, bookings, cancellations, occupancy, rows);
+    }
+}
@@ -1,11 +1,17 @@
 package com.gazi.ParkUs.services;
 
 
+import com.gazi.ParkUs.dto.NearbySpotResponseDto;
+import com.gazi.ParkUs.dto.ParkingSpotPageDto;
 import com.gazi.ParkUs.dto.ParkingSpotRequestDto;
 import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ParkingSpotService {
 
@@ -13,10 +19,26 @@ public interface ParkingSpotService {
 
     ParkingSpotResponseDto getSpotById(Long id);
 
-    List<ParkingSpotResponseDto> getAllSpots();
+    ParkingSpotPageDto getSpots(String cursor, int limit);
+
+    void streamAllSpots(Consumer<ParkingSpotResponseDto> sink);
 
     List<ParkingSpotResponseDto> getSpotsByOwner(Long ownerId);
 
+    Page<NearbySpotResponseDto> findNearby(double latitude, double longitude, double radiusKm, Pageable pageable);
+
+    List<ParkingSpotResponseDto> getTopRatedSpots(int limit, long minRatings);
+
+    Page<NearbySpotResponseDto> searchAvailable(
+            double latitude,
+            double longitude,
+            double radiusKm,
+            LocalDateTime from,
+            LocalDateTime to,
+            String rankBy,
+            Pageable pageable
+    );
+
     ParkingSpotResponseDto updateSpot(Long spotId, ParkingSpotRequestDto dto) throws AccessDeniedException;
 
     void deleteSpot(Long spotId) throws AccessDeniedException;
@@ -1,58 +1,140 @@
 package com.gazi.ParkUs.services;
 
-import com.gazi.ParkUs.User.UserRole;
+import com.gazi.ParkUs.dto.NearbySpotResponseDto;
+import com.gazi.ParkUs.dto.ParkingSpotPageDto;
 import com.gazi.ParkUs.dto.ParkingSpotRequestDto;
 import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
 import com.gazi.ParkUs.entities.ParkingSpot;
 import com.gazi.ParkUs.entities.RegularUser;
 import com.gazi.ParkUs.entities.UserEntity;
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
 import com.gazi.ParkUs.exceptions.ResourceNotFoundException;
 import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
 import com.gazi.ParkUs.repositories.UserRepository;
 import com.gazi.ParkUs.security.SecurityUtils;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ParkingSpotServiceImpl implements ParkingSpotService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int FREE_CHECK_CHUNK = 1000; // bind parameters per IN list
+
+    private static final Comparator<SpotGeoIndex.Hit> BY_DISTANCE = Comparator
+            .comparingDouble(SpotGeoIndex.Hit::distanceKm)
+            .thenComparing(SpotGeoIndex.Hit::spotId);
+    private static final Comparator<SpotGeoIndex.Hit> BY_PRICE = Comparator
+            .comparing(SpotGeoIndex.Hit::pricePerHour, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()))
+            .thenComparing(BY_DISTANCE);
+
     private final ParkingSpotRepository spotRepo;
     private final UserRepository userRepo;
+    private final SpotAvailabilityRepository availabilityRepo;
+    private final SpotGeoIndex geoIndex;
+    private final SpotRatingIndex ratingIndex;
+    private final SpotResponseCache spotCache;
+    private final ApplicationEventPublisher events;
 
-    public ParkingSpotServiceImpl(ParkingSpotRepository spotRepo, UserRepository userRepo) {
+    public ParkingSpotServiceImpl(
+            ParkingSpotRepository spotRepo,
+            UserRepository userRepo,
+            SpotAvailabilityRepository availabilityRepo,
+            SpotGeoIndex geoIndex,
+            SpotRatingIndex ratingIndex,
+            SpotResponseCache spotCache,
+            ApplicationEventPublisher events
+    ) {
         this.spotRepo = spotRepo;
         this.userRepo = userRepo;
+        this.availabilityRepo = availabilityRepo;
+        this.geoIndex = geoIndex;
+        this.ratingIndex = ratingIndex;
+        this.spotCache = spotCache;
+        this.events = events;
     }
 
     @Override
     public ParkingSpotResponseDto createSpot(ParkingSpotRequestDto dto) {
-        UserEntity currentUser = userRepo.findByEmail(SecurityUtils.currentUserEmail())
+        UserEntity currentUser = userRepo.findById(SecurityUtils.currentUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-
-
         ParkingSpot spot = new ParkingSpot();
         applyDto(spot, dto);
         spot.setOwner((RegularUser) currentUser);
 
-        return toResponse(spotRepo.save(spot));
+        ParkingSpot saved = spotRepo.save(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.CREATED, saved));
+        return toResponse(saved);
     }
 
     @Override
     public ParkingSpotResponseDto getSpotById(Long id) {
-        return toResponse(findSpot(id));
+        ParkingSpotResponseDto cached = spotCache.get(id);
+        if (cached != null) {
+            // Ratings change independently of the spot, so they are never cached
+            return withRating(cached);
+        }
+
+        long generation = spotCache.generation();
+        ParkingSpotResponseDto loaded = toResponse(findSpot(id));
+        spotCache.put(loaded, generation);
+        return loaded;
     }
 
     @Override
-    public List<ParkingSpotResponseDto> getAllSpots() {
-        return spotRepo.findAll()
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    public ParkingSpotPageDto getSpots(String cursor, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to know whether another page follows
+        List<ParkingSpotResponseDto> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = spotRepo.findFirstPage(Limit.of(limit + 1));
+        } else {
+            SpotCursor after = decodeCursor(cursor);
+            items = spotRepo.findPageAfter(after.createdAt(), after.spotId(), Limit.of(limit + 1));
+        }
+
+        items.forEach(this::withRating);
+        if (items.size() <= limit) {
+            return new ParkingSpotPageDto(items, null);
+        }
+        List<ParkingSpotResponseDto> page = items.subList(0, limit);
+        return new ParkingSpotPageDto(page, encodeCursor(page.get(limit - 1)));
+    }
+
+    @Override
+    public void streamAllSpots(Consumer<ParkingSpotResponseDto> sink) {
+        // DTO projection over a JDBC cursor: nothing accumulates in the persistence context
+        try (Stream<ParkingSpotResponseDto> spots = spotRepo.streamAll()) {
+            spots.map(this::withRating).forEach(sink);
+        }
     }
 
     @Override
@@ -63,44 +145,145 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
                 .toList();
     }
 
+    @Override
+    public Page<NearbySpotResponseDto> findNearby(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        validateArea(latitude, longitude, radiusKm);
+
+        // Only the k = offset + size nearest are ranked; everything beyond the requested page is discarded
+        long k = pageable.getOffset() + pageable.getPageSize();
+        SpotGeoIndex.Result result = geoIndex.nearest(latitude, longitude, radiusKm, (int) Math.min(k, Integer.MAX_VALUE));
+        List<SpotGeoIndex.Hit> pageHits = result.hits()
+                .stream()
+                .skip(pageable.getOffset())
+                .toList();
+
+        Map<Long, ParkingSpot> spots = spotRepo.findAllById(pageHits.stream().map(SpotGeoIndex.Hit::spotId).toList())
+                .stream()
+                .collect(Collectors.toMap(ParkingSpot::getSpotId, Function.identity()));
+
+        List<NearbySpotResponseDto> content = pageHits.stream()
+                .filter(hit -> spots.containsKey(hit.spotId()))
+                .map(hit -> new NearbySpotResponseDto(toResponse(spots.get(hit.spotId())), hit.distanceKm()))
+                .toList();
+
+        return new PageImpl<>(content, pageable, result.total());
+    }
+
+    @Override
+    public List<ParkingSpotResponseDto> getTopRatedSpots(int limit, long minRatings) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Long> ids = ratingIndex.topRated(limit, Math.max(1, minRatings))
+                .stream()
+                .map(SpotRatingIndex.Summary::spotId)
+                .toList();
+        Map<Long, ParkingSpot> spots = spotRepo.findAllById(ids)
+                .stream()
+                .collect(Collectors.toMap(ParkingSpot::getSpotId, Function.identity()));
+
+        return ids.stream()
+                .filter(spots::containsKey)
+                .map(id -> toResponse(spots.get(id)))
+                .toList();
+    }
+
+    @Override
+    public Page<NearbySpotResponseDto> searchAvailable(
+            double latitude,
+            double longitude,
+            double radiusKm,
+            LocalDateTime from,
+            LocalDateTime to,
+            String rankBy,
+            Pageable pageable
+    ) {
+        validateArea(latitude, longitude, radiusKm);
+        if (!to.isAfter(from)) {
+            throw new InvalidRequestException("to must be after from");
+        }
+        Comparator<SpotGeoIndex.Hit> order = switch (rankBy.toLowerCase()) {
+            case "distance" -> BY_DISTANCE;
+            case "price" -> BY_PRICE;
+            default -> throw new InvalidRequestException("rankBy must be one of: distance, price");
+        };
+
+        // Spatial filter in memory, then one set-based free-slot query per chunk of candidates
+        List<SpotGeoIndex.Hit> candidates = geoIndex.within(latitude, longitude, radiusKm);
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> free = new HashSet<>();
+        for (int i = 0; i < candidates.size(); i += FREE_CHECK_CHUNK) {
+            List<Long> chunk = candidates.subList(i, Math.min(i + FREE_CHECK_CHUNK, candidates.size()))
+                    .stream()
+                    .map(SpotGeoIndex.Hit::spotId)
+                    .toList();
+            free.addAll(availabilityRepo.findSpotIdsFreeBetween(chunk, from, to, now));
+        }
+
+        List<SpotGeoIndex.Hit> ranked = candidates.stream()
+                .filter(hit -> free.contains(hit.spotId()))
+                .sorted(order)
+                .toList();
+        List<SpotGeoIndex.Hit> pageHits = ranked.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+
+        Map<Long, ParkingSpot> spots = spotRepo.findAllById(pageHits.stream().map(SpotGeoIndex.Hit::spotId).toList())
+                .stream()
+                .collect(Collectors.toMap(ParkingSpot::getSpotId, Function.identity()));
+
+        List<NearbySpotResponseDto> content = pageHits.stream()
+                .filter(hit -> spots.containsKey(hit.spotId()))
+                .map(hit -> new NearbySpotResponseDto(toResponse(spots.get(hit.spotId())), hit.distanceKm()))
+                .toList();
+
+        return new PageImpl<>(content, pageable, ranked.size());
+    }
+
     @Override
     public ParkingSpotResponseDto updateSpot(Long spotId, ParkingSpotRequestDto dto)
             throws AccessDeniedException {
 
         ParkingSpot spot = findSpot(spotId);
-        UserEntity currentUser = userRepo.findByEmail(SecurityUtils.currentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-
-        assertOwner(spot, currentUser);
+        assertOwner(spot);
 
         applyDto(spot, dto);
-        return toResponse(spotRepo.save(spot));
+        ParkingSpot saved = spotRepo.save(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.UPDATED, saved));
+        return toResponse(saved);
     }
 
     @Override
     public void deleteSpot(Long spotId) throws AccessDeniedException {
         ParkingSpot spot = findSpot(spotId);
-        UserEntity currentUser = userRepo.findByEmail(SecurityUtils.currentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-
-        assertOwner(spot, currentUser);
+        assertOwner(spot);
 
         spotRepo.delete(spot);
+        events.publishEvent(SpotChangedEvent.of(SpotChangedEvent.Type.DELETED, spot));
     }
 
     // ---------- helpers ----------
 
+    private void validateArea(double latitude, double longitude, double radiusKm) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new InvalidRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        if (radiusKm <= 0 || radiusKm > SpotGeoIndex.MAX_RADIUS_KM) {
+            throw new InvalidRequestException("Radius must be greater than 0 and at most " + SpotGeoIndex.MAX_RADIUS_KM + " km");
+        }
+    }
+
     private ParkingSpot findSpot(Long id) {
         return spotRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found"));
     }
 
-    private void assertOwner(ParkingSpot spot, UserEntity user)
+    private void assertOwner(ParkingSpot spot)
             throws AccessDeniedException {
 
-        if (!isAdmin(user) && !spot.getOwner().getUserId().equals(user.getUserId())) {
+        if (!SecurityUtils.isAdmin() && !spot.getOwner().getUserId().equals(SecurityUtils.currentUserId())) {
             throw new AccessDeniedException("You do not own this parking spot");
         }
     }
@@ -115,7 +298,29 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
         spot.setPricePerHour(dto.getPricePerHour());
     }
 
-    private ParkingSpotResponseDto toResponse(ParkingSpot spot) {
+    private record SpotCursor(LocalDateTime createdAt, Long spotId) {
+    }
+
+    private String encodeCursor(ParkingSpotResponseDto last) {
+        String raw = last.getCreatedAt() + "|" + last.getSpotId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SpotCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new SpotCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.valueOf(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid cursor");
+        }
+    }
+
+    // Package-private so DtoMappingBenchmark can measure it directly
+    ParkingSpotResponseDto toResponse(ParkingSpot spot) {
         ParkingSpotResponseDto dto = new ParkingSpotResponseDto();
         dto.setSpotId(spot.getSpotId());
         dto.setTitle(spot.getTitle());
@@ -126,10 +331,14 @@ public class ParkingSpotServiceImpl implements ParkingSpotService {
         dto.setSlotType(spot.getSlotType());
         dto.setPricePerHour(spot.getPricePerHour());
         dto.setOwnerId(spot.getOwner().getUserId());
-        return dto;
+        dto.setCreatedAt(spot.getCreatedAt());
+        return withRating(dto);
     }
 
-    private boolean isAdmin(UserEntity user) {
-        return user.getRole() == UserRole.ROLE_ADMIN;
+    private ParkingSpotResponseDto withRating(ParkingSpotResponseDto dto) {
+        SpotRatingIndex.Summary rating = ratingIndex.summary(dto.getSpotId());
+        dto.setAverageRating(rating == null ? null : rating.average());
+        dto.setRatingCount(rating == null ? 0 : rating.count());
+        return dto;
     }
 }
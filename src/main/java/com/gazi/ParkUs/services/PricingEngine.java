@@ -0,0 +1,189 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import com.gazi.ParkUs.exceptions.ResourceNotFoundException;
+import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prices parking windows: hourly rate prorated to the minute, with minutes
+ * inside the configured peak windows charged at {@code pricing.peak.multiplier}
+ * and the rest at {@code pricing.off-peak.multiplier}. Multi-day stays are
+ * split per day, so every day's peak windows apply.
+ *
+ * Quotes read rates from an in-memory table loaded on first use and kept in
+ * sync from committed {@link SpotChangedEvent}s; bookings pass the rate of the
+ * spot they already loaded.
+ */
+@Component
+public class PricingEngine {
+
+    private static final BigDecimal MINUTES_PER_HOUR = BigDecimal.valueOf(60);
+
+    private final ParkingSpotRepository spotRepo;
+    private final List<PeakWindow> peakWindows;
+    private final Set<DayOfWeek> peakDays;
+    private final BigDecimal peakMultiplier;
+    private final BigDecimal offPeakMultiplier;
+
+    private final ConcurrentHashMap<Long, BigDecimal> rates = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public PricingEngine(
+            ParkingSpotRepository spotRepo,
+            @Value("${pricing.peak.windows:07:00-10:00,16:00-19:00}") String peakWindows,
+            @Value("${pricing.peak.days:MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY}") String peakDays,
+            @Value("${pricing.peak.multiplier:1.0}") BigDecimal peakMultiplier,
+            @Value("${pricing.off-peak.multiplier:1.0}") BigDecimal offPeakMultiplier
+    ) {
+        this.spotRepo = spotRepo;
+        this.peakWindows = parseWindows(peakWindows);
+        this.peakDays = parseDays(peakDays);
+        this.peakMultiplier = peakMultiplier;
+        this.offPeakMultiplier = offPeakMultiplier;
+    }
+
+    public record Quote(BigDecimal pricePerHour, long minutes, long peakMinutes, BigDecimal total) {
+    }
+
+    private record PeakWindow(LocalTime start, LocalTime end) {
+    }
+
+    /** Quotes a window on a spot using the cached rate table. */
+    public Quote quote(Long spotId, LocalDateTime start, LocalDateTime end) {
+        return quote(rateOf(spotId), start, end);
+    }
+
+    /** Quotes a window at a known hourly rate. */
+    public Quote quote(BigDecimal pricePerHour, LocalDateTime start, LocalDateTime end) {
+        long minutes = Math.max(0, ChronoUnit.MINUTES.between(start, end));
+        long peak = Math.min(peakMinutes(start, end), minutes);
+        BigDecimal weighted = peakMultiplier.multiply(BigDecimal.valueOf(peak))
+                .add(offPeakMultiplier.multiply(BigDecimal.valueOf(minutes - peak)));
+        BigDecimal total = pricePerHour.multiply(weighted).divide(MINUTES_PER_HOUR, 2, RoundingMode.HALF_UP);
+        return new Quote(pricePerHour, minutes, peak, total);
+    }
+
+    /** Fractional hours between two times, to the minute. */
+    public static BigDecimal durationHours(LocalDateTime start, LocalDateTime end) {
+        return BigDecimal.valueOf(ChronoUnit.MINUTES.between(start, end))
+                .divide(MINUTES_PER_HOUR, 2, RoundingMode.HALF_UP);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpotChanged(SpotChangedEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                if (event.pricePerHour() != null) {
+                    rates.put(event.spotId(), event.pricePerHour());
+                }
+            }
+            case DELETED -> rates.remove(event.spotId());
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private BigDecimal rateOf(Long spotId) {
+        ensureLoaded();
+        BigDecimal rate = rates.get(spotId);
+        if (rate == null) {
+            // Created after the load and its event not applied yet
+            rate = spotRepo.findPricePerHour(spotId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found: " + spotId));
+            rates.putIfAbsent(spotId, rate);
+        }
+        return rate;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (Object[] row : spotRepo.findAllPrices()) {
+                if (row[1] != null) {
+                    rates.putIfAbsent((Long) row[0], (BigDecimal) row[1]);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private long peakMinutes(LocalDateTime start, LocalDateTime end) {
+        long peak = 0;
+        for (LocalDate day = start.toLocalDate(); !day.isAfter(end.toLocalDate()); day = day.plusDays(1)) {
+            if (!peakDays.contains(day.getDayOfWeek())) {
+                continue;
+            }
+            for (PeakWindow window : peakWindows) {
+                LocalDateTime from = max(start, day.atTime(window.start()));
+                LocalDateTime to = min(end, day.atTime(window.end()));
+                if (from.isBefore(to)) {
+                    peak += ChronoUnit.MINUTES.between(from, to);
+                }
+            }
+        }
+        return peak;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    /** Parses {@code HH:mm-HH:mm,...}; windows must not cross midnight or overlap. */
+    private static List<PeakWindow> parseWindows(String spec) {
+        List<PeakWindow> windows = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] bounds = part.trim().split("-");
+            if (bounds.length != 2) {
+                throw new IllegalStateException("pricing.peak.windows entries must look like HH:mm-HH:mm, got " + part);
+            }
+            LocalTime start = LocalTime.parse(bounds[0].trim());
+            LocalTime end = LocalTime.parse(bounds[1].trim());
+            if (!end.isAfter(start)) {
+                throw new IllegalStateException("pricing.peak.windows entry must end after it starts: " + part);
+            }
+            windows.add(new PeakWindow(start, end));
+        }
+        windows.sort(Comparator.comparing(PeakWindow::start));
+        for (int i = 1; i < windows.size(); i++) {
+            if (windows.get(i).start().isBefore(windows.get(i - 1).end())) {
+                throw new IllegalStateException("pricing.peak.windows entries overlap: " + spec);
+            }
+        }
+        return List.copyOf(windows);
+    }
+
+    private static Set<DayOfWeek> parseDays(String spec) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String part : spec.split(",")) {
+            if (!part.isBlank()) {
+                days.add(DayOfWeek.valueOf(part.trim().toUpperCase()));
+            }
+        }
+        return days;
+    }
+}
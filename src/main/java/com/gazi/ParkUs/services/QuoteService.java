@@ -0,0 +1,10 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.PriceQuoteDto;
+import com.gazi.ParkUs.dto.PriceQuoteRequestDto;
+
+import java.util.List;
+
+public interface QuoteService {
+    List<PriceQuoteDto> quote(PriceQuoteRequestDto dto);
+}
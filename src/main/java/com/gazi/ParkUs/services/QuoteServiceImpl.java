@@ -0,0 +1,49 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.PriceQuoteDto;
+import com.gazi.ParkUs.dto.PriceQuoteRequestDto;
+import com.gazi.ParkUs.dto.QuoteWindowDto;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
+import org.springframework.stereotype.Service;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class QuoteServiceImpl implements QuoteService {
+
+    static final int MAX_QUOTE_DAYS = 366;
+
+    private final PricingEngine pricing;
+
+    public QuoteServiceImpl(PricingEngine pricing) {
+        this.pricing = pricing;
+    }
+
+    @Override
+    public List<PriceQuoteDto> quote(PriceQuoteRequestDto dto) {
+        // Rates come from the in-memory table: no entities, no transaction
+        List<PriceQuoteDto> quotes = new ArrayList<>(dto.getWindows().size());
+        for (QuoteWindowDto window : dto.getWindows()) {
+            if (!window.getEndTime().isAfter(window.getStartTime())) {
+                throw new InvalidRequestException("End time must be after start time");
+            }
+            if (ChronoUnit.DAYS.between(window.getStartTime(), window.getEndTime()) >= MAX_QUOTE_DAYS) {
+                throw new InvalidRequestException("Quotes can cover at most " + MAX_QUOTE_DAYS + " days");
+            }
+
+            PricingEngine.Quote quote = pricing.quote(window.getSpotId(), window.getStartTime(), window.getEndTime());
+            quotes.add(new PriceQuoteDto(
+                    window.getSpotId(),
+                    window.getStartTime(),
+                    window.getEndTime(),
+                    quote.minutes(),
+                    quote.peakMinutes(),
+                    quote.pricePerHour(),
+                    quote.total()
+            ));
+        }
+        return quotes;
+    }
+}
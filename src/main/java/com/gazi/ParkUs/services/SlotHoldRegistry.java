@@ -0,0 +1,172 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.SlotHoldEvent;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of active slot holds, expired by a hashed timing wheel.
+ *
+ * The database columns {@code held_by}/{@code hold_expires_at} stay the source
+ * of truth: every query treats a hold as gone once its expiry has passed, so
+ * nothing is written when a hold lapses. This registry lets the booking path
+ * recognise the holder without touching the row, and announces lapsed holds
+ * as {@code RELEASED}. Each hold sits in the one-second bucket of its expiry;
+ * a tick drains only the buckets for the seconds that elapsed, so expiry costs
+ * O(1) per hold instead of a sweep over the table.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotHoldRegistry.class);
+
+    private final SpotAvailabilityRepository availabilityRepo;
+    private final ApplicationEventPublisher events;
+    private final Duration ttl;
+
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final Queue<Hold>[] wheel;
+    private final AtomicLong expired = new AtomicLong();
+
+    // Last second whose bucket was drained; only touched by tick()
+    private long lastTick = epochSecond(LocalDateTime.now());
+
+    @SuppressWarnings("unchecked")
+    public SlotHoldRegistry(
+            SpotAvailabilityRepository availabilityRepo,
+            ApplicationEventPublisher events,
+            @Value("${booking.hold.ttl:300000}") long ttlMillis
+    ) {
+        if (ttlMillis < 1000) {
+            throw new IllegalStateException("booking.hold.ttl must be at least 1000 ms, got " + ttlMillis);
+        }
+        this.availabilityRepo = availabilityRepo;
+        this.events = events;
+        this.ttl = Duration.ofMillis(ttlMillis);
+        // One slot per second of the TTL plus slack, so a fresh hold never lands in the bucket being drained
+        this.wheel = new Queue[(int) (ttlMillis / 1000) + 2];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    private record Hold(Long availabilityId, Long spotId, Long userId, LocalDateTime startTime,
+                        LocalDateTime endTime, LocalDateTime expiresAt, long dueSecond) {}
+
+    public record Stats(int active, long expired, long ttlMillis, int wheelSlots) {}
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /** True when {@code userId} holds the slot, so the booking can claim it without a row lock. */
+    public boolean isHeldBy(Long availabilityId, Long userId) {
+        Hold hold = holds.get(availabilityId);
+        return hold != null && hold.userId().equals(userId) && hold.expiresAt().isAfter(LocalDateTime.now());
+    }
+
+    public Stats stats() {
+        return new Stats(holds.size(), expired.get(), ttl.toMillis(), wheel.length);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        List<SpotAvailability> active = availabilityRepo.findActiveHolds(LocalDateTime.now());
+        for (SpotAvailability availability : active) {
+            track(availability.getAvailabilityId(), availability.getSpot().getSpotId(), availability.getHeldBy(),
+                    availability.getStartTime(), availability.getEndTime(), availability.getHoldExpiresAt());
+        }
+        log.info("Loaded {} active slot holds", active.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSlotHold(SlotHoldEvent event) {
+        switch (event.type()) {
+            case HELD -> track(event.availabilityId(), event.spotId(), event.userId(),
+                    event.startTime(), event.endTime(), event.expiresAt());
+            case RELEASED -> holds.remove(event.availabilityId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        // Booking consumes the hold; a deleted slot has nothing left to hold
+        if (event.type() == AvailabilityChangedEvent.Type.BOOKED
+                || event.type() == AvailabilityChangedEvent.Type.DELETED) {
+            holds.remove(event.availabilityId());
+        }
+    }
+
+    @Scheduled(fixedRate = 1000)
+    public void tick() {
+        long now = epochSecond(LocalDateTime.now());
+        // After a long pause one lap of the wheel covers every bucket
+        long from = Math.max(lastTick + 1, now - wheel.length + 1);
+        for (long second = from; second <= now; second++) {
+            drain(second);
+        }
+        lastTick = Math.max(lastTick, now);
+    }
+
+    // ---------- helpers ----------
+
+    private void track(Long availabilityId, Long spotId, Long userId, LocalDateTime startTime,
+                       LocalDateTime endTime, LocalDateTime expiresAt) {
+        Hold hold = new Hold(availabilityId, spotId, userId, startTime, endTime, expiresAt, dueSecond(expiresAt));
+        holds.put(availabilityId, hold);
+        // A replaced hold stays in its old bucket and is skipped there by the identity check
+        wheel[bucket(hold.dueSecond())].add(hold);
+    }
+
+    private void drain(long second) {
+        Queue<Hold> bucket = wheel[bucket(second)];
+        List<Hold> due = new ArrayList<>();
+        for (Hold hold; (hold = bucket.poll()) != null; ) {
+            due.add(hold);
+        }
+        for (Hold hold : due) {
+            if (hold.dueSecond() > second) {
+                bucket.add(hold); // further than one lap ahead (e.g. loaded after the TTL was shortened)
+            } else if (holds.remove(hold.availabilityId(), hold)) {
+                expired.incrementAndGet();
+                events.publishEvent(new AvailabilityChangedEvent(AvailabilityChangedEvent.Type.RELEASED,
+                        hold.availabilityId(), hold.spotId(), hold.startTime(), hold.endTime()));
+            }
+        }
+    }
+
+    private int bucket(long second) {
+        return (int) Math.floorMod(second, (long) wheel.length);
+    }
+
+    /** Rounded up, so the in-memory hold never lapses before the database one. */
+    private static long dueSecond(LocalDateTime expiresAt) {
+        long second = epochSecond(expiresAt);
+        return expiresAt.getNano() > 0 ? second + 1 : second;
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
@@ -1,14 +1,19 @@
 package com.gazi.ParkUs.services;
 
+import com.gazi.ParkUs.dto.SpotAvailabilityBulkRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityResponseDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SpotAvailabilityService {
     SpotAvailabilityResponseDto createAvailability(SpotAvailabilityRequestDto dto);
+    List<SpotAvailabilityResponseDto> createAvailabilityBulk(SpotAvailabilityBulkRequestDto dto);
     SpotAvailabilityResponseDto getAvailabilityById(Long id);
     List<SpotAvailabilityResponseDto> getAvailabilitiesBySpot(Long spotId);
-    List<SpotAvailabilityResponseDto> getAvailableSlotsBySpot(Long spotId);
+    List<SpotAvailabilityResponseDto> getAvailableSlotsBySpot(Long spotId, LocalDateTime from, LocalDateTime to, int limit);
     void deleteAvailability(Long id);
+    SpotAvailabilityResponseDto holdSlot(Long id);
+    void releaseHold(Long id);
 }
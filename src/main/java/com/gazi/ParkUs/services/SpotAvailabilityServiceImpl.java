@@ -1,55 +1,73 @@
 package com.gazi.ParkUs.services;
 
-import com.gazi.ParkUs.User.UserRole;
+import com.gazi.ParkUs.dto.SpotAvailabilityBulkRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityRequestDto;
 import com.gazi.ParkUs.dto.SpotAvailabilityResponseDto;
 import com.gazi.ParkUs.entities.ParkingSpot;
 import com.gazi.ParkUs.entities.SpotAvailability;
-import com.gazi.ParkUs.entities.UserEntity;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.SlotHoldEvent;
+import com.gazi.ParkUs.exceptions.BookingConflictException;
 import com.gazi.ParkUs.exceptions.InvalidRequestException;
+import com.gazi.ParkUs.exceptions.PastSlotException;
 import com.gazi.ParkUs.exceptions.ResourceNotFoundException;
 import com.gazi.ParkUs.exceptions.UnauthorizedException;
 import com.gazi.ParkUs.repositories.ParkingSpotRepository;
 import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
-import com.gazi.ParkUs.repositories.UserRepository;
 import com.gazi.ParkUs.security.SecurityUtils;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 @Transactional
 public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
 
+    static final int MAX_BULK_SLOTS = 5000;
+    static final int MAX_BULK_DAYS = 366;
+    static final int MAX_SLOTS_PAGE = 500;
+
+    // Upper bound for an open-ended window; still a valid Postgres timestamp
+    private static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final SpotAvailabilityRepository availabilityRepo;
     private final ParkingSpotRepository spotRepo;
-    private final UserRepository userRepo;
+    private final AvailabilityIntervalIndex intervalIndex;
+    private final AvailabilityLocks locks;
+    private final SlotHoldRegistry holds;
+    private final ApplicationEventPublisher events;
 
     public SpotAvailabilityServiceImpl(
             SpotAvailabilityRepository availabilityRepo,
             ParkingSpotRepository spotRepo,
-            UserRepository userRepo
+            AvailabilityIntervalIndex intervalIndex,
+            AvailabilityLocks locks,
+            SlotHoldRegistry holds,
+            ApplicationEventPublisher events
     ) {
         this.availabilityRepo = availabilityRepo;
         this.spotRepo = spotRepo;
-        this.userRepo = userRepo;
+        this.intervalIndex = intervalIndex;
+        this.locks = locks;
+        this.holds = holds;
+        this.events = events;
     }
 
     @Override
     public SpotAvailabilityResponseDto createAvailability(SpotAvailabilityRequestDto dto) {
-        // Get authenticated user
-        String currentUserEmail = SecurityUtils.currentUserEmail();
-        UserEntity authenticatedUser = userRepo.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-
         // Get parking spot
         ParkingSpot spot = spotRepo.findById(dto.getSpotId())
                 .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found"));
 
         // Verify user owns the spot
-        if (!isAdmin(authenticatedUser) && !spot.getOwner().getUserId().equals(authenticatedUser.getUserId())) {
+        if (!SecurityUtils.isAdmin() && !spot.getOwner().getUserId().equals(SecurityUtils.currentUserId())) {
             throw new UnauthorizedException("You can only create availability for your own spots");
         }
 
@@ -62,8 +80,13 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
             throw new InvalidRequestException("Start time must be in the future");
         }
 
+        // Reject overlaps from the in-memory index first, so the row lock below is only taken for real candidates
+        if (intervalIndex.overlaps(dto.getSpotId(), dto.getStartTime(), dto.getEndTime())) {
+            throw new InvalidRequestException("This time slot overlaps with existing availability");
+        }
+
         // Check for overlapping availability using a locked query to avoid races
-        List<SpotAvailability> overlapping = availabilityRepo.findOverlapping(
+        List<SpotAvailability> overlapping = locks.findOverlapping(
             dto.getSpotId(), dto.getStartTime(), dto.getEndTime());
         if (!overlapping.isEmpty()) {
             throw new InvalidRequestException("This time slot overlaps with existing availability");
@@ -77,10 +100,59 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
         availability.setIsBooked(false);
 
         availabilityRepo.save(availability);
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.CREATED, availability));
 
         return toDto(availability);
     }
 
+    @Override
+    public List<SpotAvailabilityResponseDto> createAvailabilityBulk(SpotAvailabilityBulkRequestDto dto) {
+        ParkingSpot spot = spotRepo.findById(dto.getSpotId())
+                .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found"));
+
+        if (!SecurityUtils.isAdmin() && !spot.getOwner().getUserId().equals(SecurityUtils.currentUserId())) {
+            throw new UnauthorizedException("You can only create availability for your own spots");
+        }
+
+        if (dto.getEndDate().isBefore(dto.getStartDate())) {
+            throw new InvalidRequestException("End date must not be before start date");
+        }
+
+        if (ChronoUnit.DAYS.between(dto.getStartDate(), dto.getEndDate()) >= MAX_BULK_DAYS) {
+            throw new InvalidRequestException("Schedules can cover at most " + MAX_BULK_DAYS + " days");
+        }
+
+        if (!dto.getDailyEndTime().isAfter(dto.getDailyStartTime())) {
+            throw new InvalidRequestException("Daily end time must be after daily start time");
+        }
+
+        List<SpotAvailability> slots = expandSchedule(spot, dto);
+        if (slots.isEmpty()) {
+            throw new InvalidRequestException("The schedule does not produce any future slots");
+        }
+
+        // One locked range query covers every generated slot; conflicts are found in memory
+        LocalDateTime rangeStart = slots.get(0).getStartTime();
+        LocalDateTime rangeEnd = slots.get(slots.size() - 1).getEndTime();
+        for (SpotAvailability existing : locks.findOverlapping(spot.getSpotId(), rangeStart, rangeEnd)) {
+            SpotAvailability clash = firstOverlap(slots, existing.getStartTime(), existing.getEndTime());
+            if (clash != null) {
+                throw new InvalidRequestException("Slot starting " + clash.getStartTime()
+                        + " overlaps with existing availability");
+            }
+        }
+
+        // Sequence ids + hibernate.jdbc.batch_size turn this into batched inserts
+        availabilityRepo.saveAll(slots);
+        for (SpotAvailability availability : slots) {
+            events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.CREATED, availability));
+        }
+
+        return slots.stream()
+                .map(this::toDto)
+                .toList();
+    }
+
     @Override
     public SpotAvailabilityResponseDto getAvailabilityById(Long id) {
         SpotAvailability availability = availabilityRepo.findById(id)
@@ -101,17 +173,25 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
     }
 
     @Override
-    public List<SpotAvailabilityResponseDto> getAvailableSlotsBySpot(Long spotId) {
+    public List<SpotAvailabilityResponseDto> getAvailableSlotsBySpot(
+            Long spotId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_SLOTS_PAGE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SLOTS_PAGE);
+        }
+
+        // Slots that already started are never bookable, whatever window was asked for
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime windowStart = from == null || from.isBefore(now) ? now : from;
+        LocalDateTime windowEnd = to == null ? OPEN_END : to;
+        if (!windowEnd.isAfter(windowStart)) {
+            throw new InvalidRequestException("to must be after from");
+        }
+
         if (!spotRepo.existsById(spotId)) {
             throw new ResourceNotFoundException("Parking spot not found");
         }
 
-        return availabilityRepo.findBySpot_SpotId(spotId)
-                .stream()
-                .filter(a -> Boolean.FALSE.equals(a.getIsBooked()))
-                .filter(a -> a.getStartTime().isAfter(LocalDateTime.now()))
-                .map(this::toDto)
-                .toList();
+        return availabilityRepo.findFreeSlots(spotId, windowStart, windowEnd, now, Limit.of(limit));
     }
 
     @Override
@@ -119,13 +199,8 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
         SpotAvailability availability = availabilityRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
 
-        // Get authenticated user
-        String currentUserEmail = SecurityUtils.currentUserEmail();
-        UserEntity authenticatedUser = userRepo.findByEmail(currentUserEmail)
-                .orElseThrow(() -> new UnauthorizedException("User not authenticated"));
-
         // Verify user owns the spot
-        if (!isAdmin(authenticatedUser) && !availability.getSpot().getOwner().getUserId().equals(authenticatedUser.getUserId())) {
+        if (!SecurityUtils.isAdmin() && !availability.getSpot().getOwner().getUserId().equals(SecurityUtils.currentUserId())) {
             throw new UnauthorizedException("You can only delete availability for your own spots");
         }
 
@@ -135,6 +210,98 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
         }
 
         availabilityRepo.delete(availability);
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.DELETED, availability));
+    }
+
+    @Override
+    public SpotAvailabilityResponseDto holdSlot(Long id) {
+        Long currentUserId = SecurityUtils.currentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        // One conditional update takes (or extends) the hold; the row is never locked beyond the statement
+        if (availabilityRepo.holdIfAvailable(id, currentUserId, now, now.plus(holds.ttl())) == 0) {
+            SpotAvailability availability = availabilityRepo.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
+            if (Boolean.TRUE.equals(availability.getIsBooked())) {
+                throw new BookingConflictException("This time slot is already booked");
+            }
+            if (!availability.getStartTime().isAfter(now)) {
+                throw new PastSlotException("Cannot hold a time slot in the past");
+            }
+            throw new BookingConflictException("This time slot is held by another user");
+        }
+
+        SpotAvailability availability = availabilityRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
+        events.publishEvent(SlotHoldEvent.of(SlotHoldEvent.Type.HELD, availability, currentUserId));
+        events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.HELD, availability));
+
+        return toDto(availability);
+    }
+
+    @Override
+    public void releaseHold(Long id) {
+        SpotAvailability availability = availabilityRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Availability not found"));
+
+        // Only the holder can release; releasing a slot you do not hold is a no-op
+        Long currentUserId = SecurityUtils.currentUserId();
+        if (availabilityRepo.releaseHold(id, currentUserId) > 0) {
+            events.publishEvent(SlotHoldEvent.of(SlotHoldEvent.Type.RELEASED, availability, currentUserId));
+            events.publishEvent(AvailabilityChangedEvent.of(AvailabilityChangedEvent.Type.RELEASED, availability));
+        }
+    }
+
+    // ---------- helpers ----------
+
+    /** Expands the recurrence into ordered, non-overlapping slots, skipping any already started. */
+    private List<SpotAvailability> expandSchedule(ParkingSpot spot, SpotAvailabilityBulkRequestDto dto) {
+        LocalDateTime now = LocalDateTime.now();
+        long dailyMinutes = ChronoUnit.MINUTES.between(dto.getDailyStartTime(), dto.getDailyEndTime());
+        int slotsPerDay = (int) (dailyMinutes / dto.getSlotMinutes());
+
+        List<SpotAvailability> slots = new ArrayList<>();
+        for (LocalDate day = dto.getStartDate(); !day.isAfter(dto.getEndDate()); day = day.plusDays(1)) {
+            if (!dto.getDaysOfWeek().contains(day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime dayStart = day.atTime(dto.getDailyStartTime());
+            for (int i = 0; i < slotsPerDay; i++) {
+                LocalDateTime start = dayStart.plusMinutes((long) i * dto.getSlotMinutes());
+                if (!start.isAfter(now)) {
+                    continue;
+                }
+                if (slots.size() == MAX_BULK_SLOTS) {
+                    throw new InvalidRequestException("Schedules can create at most " + MAX_BULK_SLOTS + " slots");
+                }
+
+                SpotAvailability availability = new SpotAvailability();
+                availability.setSpot(spot);
+                availability.setStartTime(start);
+                availability.setEndTime(start.plusMinutes(dto.getSlotMinutes()));
+                availability.setIsBooked(false);
+                slots.add(availability);
+            }
+        }
+        return slots;
+    }
+
+    /** Slots are sorted and disjoint, so their end times are sorted too: binary search the first ending after start. */
+    private static SpotAvailability firstOverlap(List<SpotAvailability> slots, LocalDateTime start, LocalDateTime end) {
+        int lo = 0;
+        int hi = slots.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (slots.get(mid).getEndTime().isAfter(start)) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        if (lo < slots.size() && slots.get(lo).getStartTime().isBefore(end)) {
+            return slots.get(lo);
+        }
+        return null;
     }
 
     private SpotAvailabilityResponseDto toDto(SpotAvailability availability) {
@@ -144,10 +311,7 @@ public class SpotAvailabilityServiceImpl implements SpotAvailabilityService {
         dto.setStartTime(availability.getStartTime());
         dto.setEndTime(availability.getEndTime());
         dto.setIsBooked(availability.getIsBooked());
+        dto.setHeldUntil(availability.isHeldAt(LocalDateTime.now()) ? availability.getHoldExpiresAt() : null);
         return dto;
     }
-
-    private boolean isAdmin(UserEntity user) {
-        return user.getRole() == UserRole.ROLE_ADMIN;
-    }
 }
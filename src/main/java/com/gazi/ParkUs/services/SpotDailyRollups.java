@@ -0,0 +1,340 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Keeps spot x day rollups (booked hours, revenue, bookings, cancellations)
+ * in step with the booking log.
+ *
+ * Each log batch is applied as a delta: a booking's previous logged state is
+ * subtracted and its new state added, so status changes and slot moves land
+ * on the right day without rescanning history. The log insert and the rollup
+ * update commit together in a transaction of their own, also when a batch is
+ * written from an after-commit listener. A nightly compaction rebuilds the recent window from
+ * the latest log row per booking to absorb late corrections, and startup
+ * rebuilds the whole retained log so deltas never start from a missing base.
+ *
+ * Only confirmed and completed bookings count towards hours and revenue;
+ * cancelled ones count as cancellations. Booked hours land on the days they
+ * fall on, so a stay across midnight is split; revenue and the booking or
+ * cancellation count go to the day the stay starts.
+ */
+@Component
+public class SpotDailyRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(SpotDailyRollups.class);
+
+    private static final BigDecimal MINUTES_PER_HOUR = BigDecimal.valueOf(60);
+    // Startup rebuild works through the log in ranges of this many days, one transaction each
+    private static final int REBUILD_CHUNK_DAYS = 31;
+
+    private static final String LATEST_STATE_SQL = """
+        SELECT booking_id, spot_id, owner_id, start_time, end_time, total_amount, booking_status
+        FROM (
+            SELECT l.booking_id, l.spot_id, l.owner_id, l.start_time, l.end_time, l.total_amount, l.booking_status,
+                   ROW_NUMBER() OVER (PARTITION BY l.booking_id ORDER BY l.logged_at DESC, l.log_id DESC) AS rn
+            FROM bookinglog l
+            WHERE l.booking_id IN (:bookingIds)
+        ) latest
+        WHERE rn = 1
+    """;
+
+    private static final String LATEST_IN_RANGE_SQL = """
+        SELECT booking_id, spot_id, owner_id, start_time, end_time, total_amount, booking_status
+        FROM (
+            SELECT l.booking_id, l.spot_id, l.owner_id, l.start_time, l.end_time, l.total_amount, l.booking_status,
+                   ROW_NUMBER() OVER (PARTITION BY l.booking_id ORDER BY l.logged_at DESC, l.log_id DESC) AS rn
+            FROM bookinglog l
+            WHERE l.booking_id IN (
+                SELECT booking_id FROM bookinglog WHERE end_time > :from AND start_time < :to
+            )
+        ) latest
+        WHERE rn = 1 AND end_time > :from AND start_time < :to
+    """;
+
+    // Standard MERGE so the same statement runs on Postgres 15+ and on H2
+    private static final String MERGE_DELTA_SQL = """
+        MERGE INTO spotdailyrollup r
+        USING (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS NUMERIC(10,2)),
+                       CAST(? AS NUMERIC(12,2)), CAST(? AS INT), CAST(? AS INT), CAST(? AS TIMESTAMP)))
+              AS d(spot_id, owner_id, rollup_date, booked_hours, revenue, bookings, cancellations, updated_at)
+        ON r.spot_id = d.spot_id AND r.rollup_date = d.rollup_date
+        WHEN MATCHED THEN UPDATE SET
+            booked_hours = r.booked_hours + d.booked_hours,
+            revenue = r.revenue + d.revenue,
+            bookings = r.bookings + d.bookings,
+            cancellations = r.cancellations + d.cancellations,
+            updated_at = d.updated_at
+        WHEN NOT MATCHED THEN
+            INSERT (spot_id, owner_id, rollup_date, booked_hours, revenue, bookings, cancellations, updated_at)
+            VALUES (d.spot_id, d.owner_id, d.rollup_date, d.booked_hours, d.revenue, d.bookings,
+                    d.cancellations, d.updated_at)
+    """;
+
+    private static final String INSERT_SQL = """
+        INSERT INTO spotdailyrollup (spot_id, owner_id, rollup_date, booked_hours, revenue, bookings,
+                                     cancellations, updated_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+    """;
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate transactions;
+    private final BookingLogPartitionManager logPartitions;
+    private final int compactionDays;
+    private final boolean rebuildOnStartup;
+
+    // Serializes batch deltas and rebuilds: each reads the state the other writes
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public SpotDailyRollups(
+            JdbcTemplate jdbc,
+            PlatformTransactionManager transactionManager,
+            BookingLogPartitionManager logPartitions,
+            @Value("${rollup.compaction.days:35}") int compactionDays,
+            @Value("${rollup.rebuild-on-startup:true}") boolean rebuildOnStartup
+    ) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.transactions = new TransactionTemplate(transactionManager);
+        // Batches also arrive from after-commit listeners, where the caller's transaction is already
+        // committed; joining it would leave the log rows and rollup deltas uncommitted
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.logPartitions = logPartitions;
+        this.compactionDays = compactionDays;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    private record Key(Long spotId, LocalDate day) {}
+
+    private record LoggedState(Long bookingId, Long spotId, Long ownerId, LocalDateTime startTime,
+                               LocalDateTime endTime, BigDecimal totalAmount, String status) {
+
+        static LoggedState of(BookingChangedEvent e) {
+            return new LoggedState(e.bookingId(), e.spotId(), e.ownerId(), e.startTime(), e.endTime(),
+                    e.totalAmount(), e.status());
+        }
+    }
+
+    private static final class Totals {
+        final Long ownerId;
+        BigDecimal hours = BigDecimal.ZERO;
+        BigDecimal revenue = BigDecimal.ZERO;
+        int bookings;
+        int cancellations;
+
+        Totals(Long ownerId) {
+            this.ownerId = ownerId;
+        }
+
+        boolean isZero() {
+            return hours.signum() == 0 && revenue.signum() == 0 && bookings == 0 && cancellations == 0;
+        }
+    }
+
+    /**
+     * Runs {@code insertLogs} and applies the batch to the rollups in one
+     * transaction. Previous states are read before the new log rows exist.
+     */
+    public void recordBatch(List<BookingChangedEvent> entries, Consumer<List<BookingChangedEvent>> insertLogs) {
+        writeLock.lock();
+        try {
+            transactions.executeWithoutResult(status -> {
+                Map<Key, Totals> deltas = deltasFor(entries);
+                insertLogs.accept(entries);
+                mergeDeltas(deltas);
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the rollups for {@code [from, to]} from the latest log row of each booking.
+     * Stays that overlap the range from outside contribute only their hours inside it.
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        writeLock.lock();
+        try {
+            return transactions.execute(status -> {
+                MapSqlParameterSource range = new MapSqlParameterSource()
+                        .addValue("from", Timestamp.valueOf(from.atStartOfDay()))
+                        .addValue("to", Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+
+                Map<Key, Totals> totals = new HashMap<>();
+                named.query(LATEST_IN_RANGE_SQL, range, (RowCallbackHandler) rs -> add(totals, readState(rs), 1));
+                totals.keySet().removeIf(key -> key.day().isBefore(from) || key.day().isAfter(to));
+
+                jdbc.update("DELETE FROM spotdailyrollup WHERE rollup_date BETWEEN ? AND ?",
+                        Date.valueOf(from), Date.valueOf(to));
+
+                List<Map.Entry<Key, Totals>> rows = new ArrayList<>(totals.entrySet());
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbc.batchUpdate(INSERT_SQL, rows, 500, (ps, row) -> {
+                    ps.setLong(1, row.getKey().spotId());
+                    ps.setLong(2, row.getValue().ownerId);
+                    ps.setDate(3, Date.valueOf(row.getKey().day()));
+                    ps.setBigDecimal(4, row.getValue().hours);
+                    ps.setBigDecimal(5, row.getValue().revenue);
+                    ps.setInt(6, row.getValue().bookings);
+                    ps.setInt(7, row.getValue().cancellations);
+                    ps.setTimestamp(8, now);
+                });
+                return rows.size();
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds every day the retained log covers. Until this has run, rollups
+     * of bookings logged before they existed (or skewed by lost log rows) are
+     * not a valid base for the per-batch deltas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildRetained() {
+        if (!rebuildOnStartup) {
+            return;
+        }
+        Map<String, Object> bounds = jdbc.queryForMap(
+                "SELECT MIN(start_time) AS first_start, MAX(end_time) AS last_end FROM bookinglog");
+        if (bounds.get("first_start") == null) {
+            return;
+        }
+        LocalDate from = ((Timestamp) bounds.get("first_start")).toLocalDateTime().toLocalDate();
+        LocalDate to = ((Timestamp) bounds.get("last_end")).toLocalDateTime().toLocalDate();
+        LocalDate retainedSince = logPartitions.retainedSince();
+        if (retainedSince != null && from.isBefore(retainedSince)) {
+            from = retainedSince; // older days keep the rollups built while their log rows existed
+        }
+
+        int rows = 0;
+        for (LocalDate chunk = from; !chunk.isAfter(to); chunk = chunk.plusDays(REBUILD_CHUNK_DAYS)) {
+            LocalDate chunkEnd = chunk.plusDays(REBUILD_CHUNK_DAYS - 1);
+            rows += rebuild(chunk, chunkEnd.isAfter(to) ? to : chunkEnd);
+        }
+        log.info("Rebuilt {} spot daily rollups from the booking log, {} to {}", rows, from, to);
+    }
+
+    @Scheduled(cron = "${rollup.compaction.cron:0 30 3 * * *}")
+    public void compact() {
+        LocalDate today = LocalDate.now();
+        int rows = rebuild(today.minusDays(compactionDays), today.plusDays(compactionDays));
+        log.info("Rebuilt {} spot daily rollups within {} days of {}", rows, compactionDays, today);
+    }
+
+    // ---------- helpers ----------
+
+    private Map<Key, Totals> deltasFor(List<BookingChangedEvent> entries) {
+        Set<Long> bookingIds = new HashSet<>();
+        for (BookingChangedEvent e : entries) {
+            bookingIds.add(e.bookingId());
+        }
+
+        Map<Long, LoggedState> previous = new HashMap<>();
+        named.query(LATEST_STATE_SQL, new MapSqlParameterSource("bookingIds", bookingIds), (RowCallbackHandler) rs -> {
+            LoggedState state = readState(rs);
+            previous.put(state.bookingId(), state);
+        });
+
+        // Chain through the batch so several changes to one booking net out
+        Map<Key, Totals> deltas = new HashMap<>();
+        for (BookingChangedEvent e : entries) {
+            LoggedState next = LoggedState.of(e);
+            LoggedState prev = previous.put(next.bookingId(), next);
+            if (prev != null) {
+                add(deltas, prev, -1);
+            }
+            add(deltas, next, 1);
+        }
+        deltas.values().removeIf(Totals::isZero);
+        return deltas;
+    }
+
+    private void mergeDeltas(Map<Key, Totals> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Key, Totals>> rows = new ArrayList<>(deltas.entrySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.batchUpdate(MERGE_DELTA_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setLong(1, row.getKey().spotId());
+            ps.setLong(2, row.getValue().ownerId);
+            ps.setDate(3, Date.valueOf(row.getKey().day()));
+            ps.setBigDecimal(4, row.getValue().hours);
+            ps.setBigDecimal(5, row.getValue().revenue);
+            ps.setInt(6, row.getValue().bookings);
+            ps.setInt(7, row.getValue().cancellations);
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    private static void add(Map<Key, Totals> totals, LoggedState state, int sign) {
+        String status = state.status() == null ? "" : state.status().toLowerCase();
+        boolean earning = status.equals("confirmed") || status.equals("completed");
+        boolean cancelled = status.equals("cancelled");
+        if (!earning && !cancelled) {
+            return;
+        }
+
+        LocalDate startDay = state.startTime().toLocalDate();
+        Totals t = totals.computeIfAbsent(new Key(state.spotId(), startDay), k -> new Totals(state.ownerId()));
+        if (!earning) {
+            t.cancellations += sign;
+            return;
+        }
+        t.revenue = t.revenue.add(sign > 0 ? state.totalAmount() : state.totalAmount().negate());
+        t.bookings += sign;
+
+        // Hours per calendar day, so multi-day stays do not pile onto their first day
+        for (LocalDate day = startDay; day.atStartOfDay().isBefore(state.endTime()); day = day.plusDays(1)) {
+            LocalDateTime from = state.startTime().isAfter(day.atStartOfDay()) ? state.startTime() : day.atStartOfDay();
+            LocalDateTime nextDay = day.plusDays(1).atStartOfDay();
+            LocalDateTime to = state.endTime().isBefore(nextDay) ? state.endTime() : nextDay;
+            BigDecimal hours = BigDecimal.valueOf(ChronoUnit.MINUTES.between(from, to))
+                    .divide(MINUTES_PER_HOUR, 2, RoundingMode.HALF_UP);
+            Totals daily = totals.computeIfAbsent(new Key(state.spotId(), day), k -> new Totals(state.ownerId()));
+            daily.hours = daily.hours.add(sign > 0 ? hours : hours.negate());
+        }
+    }
+
+    private static LoggedState readState(ResultSet rs) throws SQLException {
+        return new LoggedState(
+                rs.getLong("booking_id"),
+                rs.getLong("spot_id"),
+                rs.getLong("owner_id"),
+                rs.getTimestamp("start_time").toLocalDateTime(),
+                rs.getTimestamp("end_time").toLocalDateTime(),
+                rs.getBigDecimal("total_amount"),
+                rs.getString("booking_status")
+        );
+    }
+}
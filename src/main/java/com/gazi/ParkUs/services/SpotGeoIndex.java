@@ -0,0 +1,197 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-process grid index over spot coordinates for nearby searches.
+ *
+ * Spots are bucketed into fixed-size lat/lng cells. A search only visits the
+ * cells covering the requested radius and ranks candidates by great-circle
+ * distance. Each entry also carries the hourly price so searches can rank by
+ * it without loading the spot. The grid is loaded on first use and then kept
+ * in sync from committed {@link SpotChangedEvent}s.
+ */
+@Component
+public class SpotGeoIndex {
+
+    public static final double MAX_RADIUS_KM = 50.0;
+
+    private static final double CELL_DEGREES = 0.02; // ~2.2 km of latitude
+    private static final int LNG_CELLS = (int) Math.ceil(360.0 / CELL_DEGREES);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final ParkingSpotRepository spotRepo;
+
+    private final ConcurrentHashMap<Long, Position> positions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public SpotGeoIndex(ParkingSpotRepository spotRepo) {
+        this.spotRepo = spotRepo;
+    }
+
+    public record Hit(Long spotId, double distanceKm, BigDecimal pricePerHour) {
+    }
+
+    public record Result(List<Hit> hits, long total) {
+    }
+
+    /**
+     * Returns the {@code limit} nearest spots within {@code radiusKm}, closest
+     * first, together with the total number of spots inside the radius.
+     */
+    public Result nearest(double lat, double lng, double radiusKm, int limit) {
+        // Max-heap on distance so the farthest of the current best k is evicted first
+        PriorityQueue<Hit> best = new PriorityQueue<>(
+                Math.max(1, Math.min(limit, 256)), Comparator.comparingDouble(Hit::distanceKm).reversed());
+        long[] total = {0};
+
+        forEachWithin(lat, lng, radiusKm, hit -> {
+            total[0]++;
+            if (best.size() < limit) {
+                best.add(hit);
+            } else if (limit > 0 && hit.distanceKm() < best.peek().distanceKm()) {
+                best.poll();
+                best.add(hit);
+            }
+        });
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::spotId));
+        return new Result(hits, total[0]);
+    }
+
+    /** Returns every spot within {@code radiusKm}, in no particular order. */
+    public List<Hit> within(double lat, double lng, double radiusKm) {
+        List<Hit> hits = new ArrayList<>();
+        forEachWithin(lat, lng, radiusKm, hits::add);
+        return hits;
+    }
+
+    /** Returns {lat, lng} for an indexed spot, or null if it has no coordinates. */
+    public double[] coordinates(Long spotId) {
+        ensureLoaded();
+        Position position = positions.get(spotId);
+        return position == null ? null : new double[]{position.lat(), position.lng()};
+    }
+
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSpotChanged(SpotChangedEvent event) {
+        if (!loaded) {
+            return; // the initial load will read the committed state
+        }
+        switch (event.type()) {
+            case CREATED, UPDATED -> put(event.spotId(), event.latitude(), event.longitude(), event.pricePerHour());
+            case DELETED -> remove(event.spotId());
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private record Position(double lat, double lng, BigDecimal pricePerHour) {
+    }
+
+    private void forEachWithin(double lat, double lng, double radiusKm, Consumer<Hit> sink) {
+        ensureLoaded();
+
+        int latSpan = (int) Math.ceil(radiusKm / KM_PER_DEGREE / CELL_DEGREES);
+        double kmPerLngDegree = KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        int lngSpan = Math.min((int) Math.ceil(radiusKm / kmPerLngDegree / CELL_DEGREES), (LNG_CELLS - 1) / 2);
+
+        int centerLat = latCell(lat);
+        int centerLng = lngCell(lng);
+
+        for (int dLat = -latSpan; dLat <= latSpan; dLat++) {
+            for (int dLng = -lngSpan; dLng <= lngSpan; dLng++) {
+                Set<Long> bucket = cells.get(cellKey(centerLat + dLat, centerLng + dLng));
+                if (bucket == null) {
+                    continue;
+                }
+                for (Long spotId : bucket) {
+                    Position position = positions.get(spotId);
+                    if (position == null) {
+                        continue;
+                    }
+                    double distance = distanceKm(lat, lng, position.lat(), position.lng());
+                    if (distance <= radiusKm) {
+                        sink.accept(new Hit(spotId, distance, position.pricePerHour()));
+                    }
+                }
+            }
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            for (Object[] row : spotRepo.findAllCoordinates()) {
+                put((Long) row[0], (BigDecimal) row[1], (BigDecimal) row[2], (BigDecimal) row[3]);
+            }
+            loaded = true;
+        }
+    }
+
+    private void put(Long spotId, BigDecimal latitude, BigDecimal longitude, BigDecimal pricePerHour) {
+        remove(spotId);
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        double lat = latitude.doubleValue();
+        double lng = longitude.doubleValue();
+        positions.put(spotId, new Position(lat, lng, pricePerHour));
+        cells.computeIfAbsent(cellKey(latCell(lat), lngCell(lng)), key -> ConcurrentHashMap.newKeySet())
+                .add(spotId);
+    }
+
+    private void remove(Long spotId) {
+        Position previous = positions.remove(spotId);
+        if (previous != null) {
+            long key = cellKey(latCell(previous.lat()), lngCell(previous.lng()));
+            cells.computeIfPresent(key, (k, bucket) -> {
+                bucket.remove(spotId);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private static int latCell(double lat) {
+        return (int) Math.floor((lat + 90.0) / CELL_DEGREES);
+    }
+
+    private static int lngCell(double lng) {
+        return (int) Math.floor((lng + 180.0) / CELL_DEGREES);
+    }
+
+    private static long cellKey(int latCell, int lngCell) {
+        // Longitude wraps around the antimeridian
+        int wrapped = Math.floorMod(lngCell, LNG_CELLS);
+        return (long) latCell * LNG_CELLS + wrapped;
+    }
+}
@@ -0,0 +1,169 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.RatingChangedEvent;
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import com.gazi.ParkUs.repositories.SpotRatingRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-spot rating aggregates (count, sum and a 1-5 histogram) plus a ranking
+ * of spots by average rating.
+ *
+ * The aggregates are built with one GROUP BY query on first use and then
+ * updated incrementally from committed {@link RatingChangedEvent}s, so spot
+ * responses can carry their average without touching the rating rows.
+ */
+@Component
+public class SpotRatingIndex {
+
+    private static final Comparator<Summary> RANKING = Comparator
+            .comparingDouble(Summary::average).reversed()
+            .thenComparing(Comparator.comparingLong(Summary::count).reversed())
+            .thenComparing(Summary::spotId);
+
+    private final SpotRatingRepository ratingRepo;
+
+    private final ConcurrentHashMap<Long, Summary> bySpot = new ConcurrentHashMap<>();
+    private final TreeSet<Summary> ranked = new TreeSet<>(RANKING);
+    private final AtomicLong version = new AtomicLong();
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+
+    public SpotRatingIndex(SpotRatingRepository ratingRepo) {
+        this.ratingRepo = ratingRepo;
+    }
+
+    /** Immutable snapshot; {@code histogram.get(i)} counts ratings of {@code i + 1} stars. */
+    public record Summary(Long spotId, long count, long sum, List<Long> histogram) {
+
+        public Summary {
+            histogram = List.copyOf(histogram);
+        }
+
+        public double average() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+    }
+
+    /** Returns null for spots without ratings. */
+    public Summary summary(Long spotId) {
+        ensureLoaded();
+        return bySpot.get(spotId);
+    }
+
+    public List<Summary> topRated(int limit, long minRatings) {
+        ensureLoaded(); // before taking the monitor: loading acquires it after loadLock
+        synchronized (this) {
+            List<Summary> top = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Summary summary : ranked) {
+                if (top.size() == limit) {
+                    break;
+                }
+                if (summary.count() >= minRatings) {
+                    top.add(summary);
+                }
+            }
+            return top;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRatingChanged(RatingChangedEvent event) {
+        version.incrementAndGet();
+        if (!loaded) {
+            return; // the initial load will read the committed state
+        }
+        int delta = event.type() == RatingChangedEvent.Type.CREATED ? 1 : -1;
+        apply(event.spotId(), event.rating(), delta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSpotChanged(SpotChangedEvent event) {
+        if (event.type() == SpotChangedEvent.Type.DELETED) {
+            version.incrementAndGet();
+            Summary removed = bySpot.remove(event.spotId());
+            if (removed != null) {
+                ranked.remove(removed);
+            }
+        }
+    }
+
+    // ---------- helpers ----------
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (loadLock) {
+            while (!loaded) {
+                // Query outside the index monitor; a change committed meanwhile bumps the version and forces a reload
+                long versionAtLoad = version.get();
+                Map<Long, long[]> histograms = new HashMap<>();
+                for (Object[] row : ratingRepo.countBySpotAndRating()) {
+                    int stars = ((Number) row[1]).intValue();
+                    if (stars >= 1 && stars <= 5) {
+                        histograms.computeIfAbsent((Long) row[0], id -> new long[5])[stars - 1] = ((Number) row[2]).longValue();
+                    }
+                }
+
+                synchronized (this) {
+                    if (version.get() != versionAtLoad) {
+                        continue;
+                    }
+                    histograms.forEach((spotId, histogram) -> install(summaryOf(spotId, histogram)));
+                    loaded = true;
+                }
+            }
+        }
+    }
+
+    private void apply(Long spotId, int stars, int delta) {
+        if (stars < 1 || stars > 5) {
+            return;
+        }
+        Summary current = bySpot.get(spotId);
+        long[] histogram = new long[5];
+        if (current != null) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = current.histogram().get(i);
+            }
+        }
+        histogram[stars - 1] = Math.max(0, histogram[stars - 1] + delta);
+
+        if (current != null) {
+            ranked.remove(current);
+            bySpot.remove(spotId);
+        }
+        Summary updated = summaryOf(spotId, histogram);
+        if (updated.count() > 0) {
+            install(updated);
+        }
+    }
+
+    private void install(Summary summary) {
+        bySpot.put(summary.spotId(), summary);
+        ranked.add(summary);
+    }
+
+    private static Summary summaryOf(Long spotId, long[] histogram) {
+        long count = 0;
+        long sum = 0;
+        List<Long> counts = new ArrayList<>(histogram.length);
+        for (int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+            sum += histogram[i] * (i + 1);
+            counts.add(histogram[i]);
+        }
+        return new Summary(spotId, count, sum, counts);
+    }
+}
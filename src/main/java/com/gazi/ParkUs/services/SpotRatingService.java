@@ -0,0 +1,14 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.RatingSummaryDto;
+import com.gazi.ParkUs.dto.SpotRatingRequestDto;
+import com.gazi.ParkUs.dto.SpotRatingResponseDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface SpotRatingService {
+    SpotRatingResponseDto rateSpot(Long spotId, SpotRatingRequestDto dto);
+    Page<SpotRatingResponseDto> getRatingsForSpot(Long spotId, Pageable pageable);
+    RatingSummaryDto getSummary(Long spotId);
+    void deleteRating(Long ratingId);
+}
@@ -0,0 +1,133 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.RatingSummaryDto;
+import com.gazi.ParkUs.dto.SpotRatingRequestDto;
+import com.gazi.ParkUs.dto.SpotRatingResponseDto;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.SpotRating;
+import com.gazi.ParkUs.events.RatingChangedEvent;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
+import com.gazi.ParkUs.exceptions.RatingAlreadyExists;
+import com.gazi.ParkUs.exceptions.ResourceNotFoundException;
+import com.gazi.ParkUs.exceptions.UnauthorizedException;
+import com.gazi.ParkUs.repositories.ParkingSpotRepository;
+import com.gazi.ParkUs.repositories.SpotRatingRepository;
+import com.gazi.ParkUs.repositories.UserRepository;
+import com.gazi.ParkUs.security.SecurityUtils;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@Transactional
+public class SpotRatingServiceImpl implements SpotRatingService {
+
+    private final SpotRatingRepository ratingRepo;
+    private final ParkingSpotRepository spotRepo;
+    private final UserRepository userRepo;
+    private final SpotRatingIndex ratingIndex;
+    private final ApplicationEventPublisher events;
+
+    public SpotRatingServiceImpl(
+            SpotRatingRepository ratingRepo,
+            ParkingSpotRepository spotRepo,
+            UserRepository userRepo,
+            SpotRatingIndex ratingIndex,
+            ApplicationEventPublisher events
+    ) {
+        this.ratingRepo = ratingRepo;
+        this.spotRepo = spotRepo;
+        this.userRepo = userRepo;
+        this.ratingIndex = ratingIndex;
+        this.events = events;
+    }
+
+    @Override
+    public SpotRatingResponseDto rateSpot(Long spotId, SpotRatingRequestDto dto) {
+        ParkingSpot spot = spotRepo.findById(spotId)
+                .orElseThrow(() -> new ResourceNotFoundException("Parking spot not found"));
+
+        Long currentUserId = SecurityUtils.currentUserId();
+        if (spot.getOwner().getUserId().equals(currentUserId)) {
+            throw new InvalidRequestException("You cannot rate your own spot");
+        }
+
+        if (ratingRepo.existsBySpot_SpotIdAndUser_UserId(spotId, currentUserId)) {
+            throw new RatingAlreadyExists("You have already rated this spot");
+        }
+
+        SpotRating rating = new SpotRating();
+        rating.setSpot(spot);
+        rating.setUser(userRepo.getReferenceById(currentUserId));
+        rating.setRating(dto.getRating());
+        rating.setComment(dto.getComment());
+
+        try {
+            // Flushed here so a concurrent duplicate hits the (spot_id, user_id) constraint inside the try
+            ratingRepo.saveAndFlush(rating);
+        } catch (DataIntegrityViolationException e) {
+            throw new RatingAlreadyExists("You have already rated this spot");
+        }
+        events.publishEvent(RatingChangedEvent.of(RatingChangedEvent.Type.CREATED, rating));
+
+        return toDto(rating, currentUserId);
+    }
+
+    @Override
+    public Page<SpotRatingResponseDto> getRatingsForSpot(Long spotId, Pageable pageable) {
+        if (!spotRepo.existsById(spotId)) {
+            throw new ResourceNotFoundException("Parking spot not found");
+        }
+        return ratingRepo.findDtosBySpot(spotId, pageable);
+    }
+
+    @Override
+    public RatingSummaryDto getSummary(Long spotId) {
+        if (!spotRepo.existsById(spotId)) {
+            throw new ResourceNotFoundException("Parking spot not found");
+        }
+
+        SpotRatingIndex.Summary summary = ratingIndex.summary(spotId);
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        for (int stars = 1; stars <= 5; stars++) {
+            histogram.put(stars, summary == null ? 0L : summary.histogram().get(stars - 1));
+        }
+
+        return new RatingSummaryDto(
+                spotId,
+                summary == null ? 0 : summary.count(),
+                summary == null ? null : summary.average(),
+                histogram
+        );
+    }
+
+    @Override
+    public void deleteRating(Long ratingId) {
+        SpotRating rating = ratingRepo.findById(ratingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Rating not found"));
+
+        if (!SecurityUtils.isAdmin() && !rating.getUser().getUserId().equals(SecurityUtils.currentUserId())) {
+            throw new UnauthorizedException("You can only delete your own ratings");
+        }
+
+        ratingRepo.delete(rating);
+        events.publishEvent(RatingChangedEvent.of(RatingChangedEvent.Type.DELETED, rating));
+    }
+
+    private SpotRatingResponseDto toDto(SpotRating rating, Long userId) {
+        return new SpotRatingResponseDto(
+                rating.getRatingId(),
+                rating.getSpot().getSpotId(),
+                userId,
+                rating.getRating(),
+                rating.getComment(),
+                rating.getCreatedAt()
+        );
+    }
+}
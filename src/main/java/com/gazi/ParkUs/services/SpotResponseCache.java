@@ -0,0 +1,98 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.dto.ParkingSpotResponseDto;
+import com.gazi.ParkUs.events.SpotChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of spot responses keyed by spotId, serving
+ * {@code GET /api/spots/{id}} without loading the spot and its owner.
+ *
+ * Entries are evicted on every committed {@link SpotChangedEvent}. Callers
+ * always receive a copy, so the cached instance is never mutated.
+ */
+@Component
+public class SpotResponseCache {
+
+    private final Map<Long, ParkingSpotResponseDto> entries;
+
+    // Bumped on every invalidation; a load that started before one is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public SpotResponseCache(@Value("${spot.cache.max-size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ParkingSpotResponseDto> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+
+    public synchronized ParkingSpotResponseDto get(Long spotId) {
+        ParkingSpotResponseDto cached = entries.get(spotId);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copyOf(cached);
+    }
+
+    /** Generation to pass to {@link #put} for a value about to be loaded. */
+    public long generation() {
+        return generation.get();
+    }
+
+    public synchronized void put(ParkingSpotResponseDto spot, long loadedAtGeneration) {
+        if (generation.get() == loadedAtGeneration) {
+            entries.put(spot.getSpotId(), copyOf(spot));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSpotChanged(SpotChangedEvent event) {
+        generation.incrementAndGet();
+        entries.remove(event.spotId());
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size());
+    }
+
+    // ---------- helpers ----------
+
+    private static ParkingSpotResponseDto copyOf(ParkingSpotResponseDto spot) {
+        ParkingSpotResponseDto copy = new ParkingSpotResponseDto(
+                spot.getSpotId(),
+                spot.getOwnerId(),
+                spot.getTitle(),
+                spot.getDescription(),
+                spot.getLocation(),
+                spot.getLatitude(),
+                spot.getLongitude(),
+                spot.getSlotType(),
+                spot.getPricePerHour(),
+                spot.getCreatedAt()
+        );
+        copy.setAverageRating(spot.getAverageRating());
+        copy.setRatingCount(spot.getRatingCount());
+        return copy;
+    }
+}
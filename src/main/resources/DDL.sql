@@ -14,6 +14,7 @@ CREATE TABLE Users (
                        email VARCHAR(100) UNIQUE NOT NULL,
                        password_hash VARCHAR(255) NOT NULL,
                        is_owner BOOLEAN DEFAULT FALSE,
+                       token_version INT NOT NULL DEFAULT 0, -- copied into JWTs; bumped to revoke them
                        created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
@@ -39,8 +40,12 @@ CREATE TABLE SpotAvailability (
                                   spot_id INT NOT NULL REFERENCES ParkingSpot(spot_id) ON DELETE CASCADE,
                                   start_time TIMESTAMP NOT NULL,
                                   end_time TIMESTAMP NOT NULL,
-                                  is_booked BOOLEAN DEFAULT FALSE
+                                  is_booked BOOLEAN DEFAULT FALSE,
+                                  held_by INT REFERENCES Users(user_id) ON DELETE SET NULL,
+                                  hold_expires_at TIMESTAMP
 );
+-- Hibernate allocates ids in blocks of 50 (pooled-lo) so bulk inserts can be batched
+ALTER SEQUENCE spotavailability_availability_id_seq INCREMENT BY 50;
 
 -- Bookings made by users
 CREATE TABLE Booking (
@@ -48,6 +53,8 @@ CREATE TABLE Booking (
                          spot_id INT NOT NULL REFERENCES ParkingSpot(spot_id),
                          renter_id INT NOT NULL REFERENCES Users(user_id),
                          availability_id INT NOT NULL REFERENCES SpotAvailability(availability_id),
+                         start_time TIMESTAMP NOT NULL,
+                         end_time TIMESTAMP NOT NULL,
                          booked_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                          status VARCHAR(20) DEFAULT 'pending', -- pending, confirmed, cancelled, completed
                          total_amount NUMERIC(10,2) NOT NULL
@@ -68,8 +75,10 @@ CREATE TABLE SpotRating (
 
 
 
+-- Range-partitioned by month on logged_at. Partitions are created ahead and
+-- dropped after the retention period by BookingLogPartitionManager.
 CREATE TABLE BookingLog (
-                            log_id SERIAL PRIMARY KEY,
+                            log_id SERIAL,
 
                             booking_id INT NOT NULL,
                             spot_id INT NOT NULL,
@@ -84,7 +93,30 @@ CREATE TABLE BookingLog (
 
                             booking_status VARCHAR(20),
 
-                            logged_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                            logged_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+                            PRIMARY KEY (log_id, logged_at)
+) PARTITION BY RANGE (logged_at);
+
+-- Catches rows outside the managed months; kept empty in normal operation
+CREATE TABLE BookingLog_default PARTITION OF BookingLog DEFAULT;
+
+-- Owner dashboard: one row per spot per day, maintained from BookingLog
+CREATE TABLE SpotDailyRollup (
+                            rollup_id BIGSERIAL PRIMARY KEY,
+
+                            spot_id BIGINT NOT NULL,
+                            owner_id BIGINT NOT NULL,
+                            rollup_date DATE NOT NULL,
+
+                            booked_hours NUMERIC(10,2) NOT NULL DEFAULT 0,
+                            revenue NUMERIC(12,2) NOT NULL DEFAULT 0,
+                            bookings INT NOT NULL DEFAULT 0,
+                            cancellations INT NOT NULL DEFAULT 0,
+
+                            updated_at TIMESTAMP,
+
+                            UNIQUE (spot_id, rollup_date)
 );
 
 
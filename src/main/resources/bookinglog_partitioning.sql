@@ -0,0 +1,45 @@
+-- One-off migration of an existing, unpartitioned bookinglog to monthly partitions.
+-- Run in a maintenance window; the application creates later months itself.
+
+BEGIN;
+
+ALTER TABLE bookinglog RENAME TO bookinglog_legacy;
+ALTER TABLE bookinglog_legacy ALTER COLUMN logged_at SET NOT NULL;
+
+CREATE TABLE bookinglog (
+    LIKE bookinglog_legacy INCLUDING DEFAULTS,
+    PRIMARY KEY (log_id, logged_at)
+) PARTITION BY RANGE (logged_at);
+
+CREATE TABLE bookinglog_default PARTITION OF bookinglog DEFAULT;
+
+-- Create one partition per month present in the legacy data, plus the current month
+DO $$
+DECLARE
+    m DATE;
+BEGIN
+    FOR m IN
+        SELECT DISTINCT date_trunc('month', logged_at)::date FROM bookinglog_legacy
+        UNION
+        SELECT date_trunc('month', now())::date
+    LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF bookinglog FOR VALUES FROM (%L) TO (%L)',
+            'bookinglog_y' || to_char(m, 'YYYY') || 'm' || to_char(m, 'MM'),
+            m, (m + INTERVAL '1 month')::date);
+    END LOOP;
+END $$;
+
+INSERT INTO bookinglog SELECT * FROM bookinglog_legacy;
+
+-- Keep handing out ids after the legacy ones
+ALTER SEQUENCE bookinglog_log_id_seq OWNED BY bookinglog.log_id;
+
+DROP TABLE bookinglog_legacy;
+
+-- Indexes on the parent cascade to every partition, current and future
+CREATE INDEX idx_log_time ON bookinglog(logged_at);
+CREATE INDEX idx_log_booking ON bookinglog(booking_id, logged_at);
+CREATE INDEX idx_log_start ON bookinglog(start_time);
+
+COMMIT;
@@ -38,18 +38,18 @@ VALUES
     (9, '2025-12-18 08:00', '2025-12-18 20:00'),
     (10, '2025-12-18 07:00', '2025-12-18 21:00');
 
-INSERT INTO Booking (spot_id, renter_id, availability_id, status, total_amount)
+INSERT INTO Booking (spot_id, renter_id, availability_id, start_time, end_time, status, total_amount)
 VALUES
-    (1, 3, 1, 'confirmed', 120.00),
-    (2, 4, 2, 'pending', 90.00),
-    (3, 7, 3, 'confirmed', 100.00),
-    (4, 8, 4, 'pending', 120.00),
-    (5, 10, 5, 'confirmed', 110.00),
-    (6, 3, 6, 'pending', 85.00),
-    (7, 4, 7, 'confirmed', 140.00),
-    (8, 8, 8, 'pending', 75.00),
-    (9, 10, 9, 'confirmed', 105.00),
-    (10, 7, 10, 'pending', 90.00);
+    (1, 3, 1, '2025-12-19 08:00', '2025-12-19 20:00', 'confirmed', 120.00),
+    (2, 4, 2, '2025-12-18 09:00', '2025-12-18 18:00', 'pending', 90.00),
+    (3, 7, 3, '2025-12-18 00:00', '2025-12-18 23:59', 'confirmed', 100.00),
+    (4, 8, 4, '2025-12-19 06:00', '2025-12-19 22:00', 'pending', 120.00),
+    (5, 10, 5, '2025-12-18 07:00', '2025-12-18 21:00', 'confirmed', 110.00),
+    (6, 3, 6, '2025-12-18 08:00', '2025-12-18 20:00', 'pending', 85.00),
+    (7, 4, 7, '2025-12-19 09:00', '2025-12-19 18:00', 'confirmed', 140.00),
+    (8, 8, 8, '2025-12-18 00:00', '2025-12-18 23:59', 'pending', 75.00),
+    (9, 10, 9, '2025-12-18 08:00', '2025-12-18 20:00', 'confirmed', 105.00),
+    (10, 7, 10, '2025-12-18 07:00', '2025-12-18 21:00', 'pending', 90.00);
 
 
 INSERT INTO SpotRating (spot_id, user_id, rating, comment)
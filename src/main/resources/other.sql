@@ -1,6 +1,38 @@
 CREATE INDEX idx_booking_renter ON booking(renter_id);
 CREATE INDEX idx_booking_owner ON booking(spot_id);
 CREATE INDEX idx_log_time ON bookinglog(logged_at);
+CREATE INDEX idx_availability_spot_free_start ON spotavailability(spot_id, is_booked, start_time);
+-- Pooled (allocationSize = 50) availability ids on databases created when the SERIAL sequence stepped by 1.
+-- Restarts the sequence just above the current ids so the first block cannot collide with existing rows.
+ALTER SEQUENCE spotavailability_availability_id_seq INCREMENT BY 50;
+SELECT setval('spotavailability_availability_id_seq',
+              (SELECT COALESCE(MAX(availability_id), 0) + 1 FROM spotavailability), false);
+-- Slot holds on databases created before held_by/hold_expires_at were in DDL.sql
+ALTER TABLE spotavailability ADD COLUMN IF NOT EXISTS held_by INT REFERENCES users(user_id) ON DELETE SET NULL;
+ALTER TABLE spotavailability ADD COLUMN IF NOT EXISTS hold_expires_at TIMESTAMP;
+CREATE INDEX idx_availability_active_hold ON spotavailability(hold_expires_at) WHERE hold_expires_at IS NOT NULL;
+-- Expiry scheduler range queries (see BookingExpiryScheduler)
+CREATE INDEX idx_availability_booked_end ON spotavailability(end_time) WHERE is_booked = true;
+CREATE INDEX idx_availability_free_start ON spotavailability(start_time) WHERE is_booked = false;
+CREATE INDEX idx_booking_availability ON booking(availability_id);
+CREATE INDEX idx_log_booking ON bookinglog(booking_id, logged_at);
+CREATE INDEX idx_log_start ON bookinglog(start_time);
+-- Rollup rebuilds select stays overlapping a range (end_time > :from AND start_time < :to)
+CREATE INDEX idx_log_end ON bookinglog(end_time);
+CREATE INDEX idx_rollup_owner_date ON spotdailyrollup(owner_id, rollup_date);
+-- Stateless JWT revocation on databases created before token_version was in DDL.sql
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INT NOT NULL DEFAULT 0;
+-- Booked windows on databases created before start_time/end_time were in DDL.sql:
+-- existing bookings cover exactly their one availability row
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS start_time TIMESTAMP;
+ALTER TABLE booking ADD COLUMN IF NOT EXISTS end_time TIMESTAMP;
+UPDATE booking b SET start_time = a.start_time, end_time = a.end_time
+FROM spotavailability a
+WHERE b.availability_id = a.availability_id AND b.start_time IS NULL;
+ALTER TABLE booking ALTER COLUMN start_time SET NOT NULL;
+ALTER TABLE booking ALTER COLUMN end_time SET NOT NULL;
+-- Expiry of confirmed bookings by their own end time (see BookingRepository.findConfirmedEndingBetween)
+CREATE INDEX idx_booking_confirmed_end ON booking(end_time) WHERE status = 'confirmed';
 
 
 -- to make sure each use can rate spot only once
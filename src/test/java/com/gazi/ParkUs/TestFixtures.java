@@ -0,0 +1,84 @@
+package com.gazi.ParkUs;
+
+import com.gazi.ParkUs.entities.Booking;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import jakarta.persistence.EntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Persists the users, spots, slots and bookings the database-backed tests seed. Spots cost 10.00 an hour
+ * and every booking is charged 10.00, so tests only spell out what they actually vary.
+ */
+public class TestFixtures {
+
+    private final EntityManager entityManager;
+
+    public TestFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public RegularUser owner() {
+        return user("Olivia", "Owner", "owner@example.com");
+    }
+
+    public RegularUser renter() {
+        return user("Rami", "Renter", "renter@example.com");
+    }
+
+    public RegularUser user(String firstName, String lastName, String email) {
+        RegularUser user = new RegularUser(firstName, lastName, email, "hash");
+        entityManager.persist(user);
+        return user;
+    }
+
+    public ParkingSpot spot(RegularUser owner) {
+        ParkingSpot spot = new ParkingSpot();
+        spot.setOwner(owner);
+        spot.setTitle("Test Spot");
+        spot.setLatitude(new BigDecimal("41.036900"));
+        spot.setLongitude(new BigDecimal("28.985000"));
+        spot.setSlotType("regular");
+        spot.setPricePerHour(new BigDecimal("10.00"));
+        entityManager.persist(spot);
+        return spot;
+    }
+
+    // One free hour-long slot starting at each of the given hours of day; flushed so queries see them
+    public ParkingSpot spotWithHourlySlots(RegularUser owner, LocalDateTime day, int... hours) {
+        ParkingSpot spot = spot(owner);
+        for (int hour : hours) {
+            slot(spot, day.withHour(hour), day.withHour(hour + 1), false);
+        }
+        entityManager.flush();
+        return spot;
+    }
+
+    public SpotAvailability slot(ParkingSpot spot, LocalDateTime start, LocalDateTime end, boolean booked) {
+        SpotAvailability availability = new SpotAvailability();
+        availability.setSpot(spot);
+        availability.setStartTime(start);
+        availability.setEndTime(end);
+        availability.setIsBooked(booked);
+        entityManager.persist(availability);
+        return availability;
+    }
+
+    // A booking of a freshly created, booked slot covering [start, end]
+    public Booking booking(ParkingSpot spot, RegularUser renter, LocalDateTime start, LocalDateTime end,
+                           String status) {
+        Booking booking = new Booking();
+        booking.setSpot(spot);
+        booking.setRenter(renter);
+        booking.setAvailability(slot(spot, start, end, true));
+        booking.setStartTime(start);
+        booking.setEndTime(end);
+        booking.setStatus(status);
+        booking.setTotalAmount(new BigDecimal("10.00"));
+        entityManager.persist(booking);
+        return booking;
+    }
+}
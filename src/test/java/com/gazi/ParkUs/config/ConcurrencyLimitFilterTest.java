@@ -0,0 +1,53 @@
+package com.gazi.ParkUs.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(2, 10, false, 10);
+
+    @Test
+    void permitIsReturnedWhenTheRequestReturns() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> {
+            assertThat(filter.stats().inFlight()).isEqualTo(1);
+        });
+
+        assertThat(filter.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void asyncRequestKeepsItsPermitUntilItCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        assertThat(filter.stats().inFlight()).isEqualTo(1);
+
+        request.getAsyncContext().complete();
+        assertThat(filter.stats().inFlight()).isZero();
+    }
+
+    @Test
+    void requestBeyondTheLimitIsRejectedWhileStreamsHoldPermits() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletRequest streaming = request();
+            streaming.setAsyncSupported(true);
+            filter.doFilter(streaming, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, (req, res) -> {
+        });
+
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(filter.stats().rejected()).isEqualTo(1);
+    }
+
+    private static MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/api/spots/stream");
+    }
+}
@@ -0,0 +1,95 @@
+package com.gazi.ParkUs.repositories;
+
+import com.gazi.ParkUs.TestFixtures;
+import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingRepositoryTest {
+
+    private static final int BOOKINGS = 60;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private RegularUser owner;
+    private RegularUser renter;
+
+    @BeforeEach
+    void seedBookings() {
+        TestFixtures fixtures = new TestFixtures(entityManager);
+        owner = fixtures.owner();
+        renter = fixtures.renter();
+        ParkingSpot spot = fixtures.spot(owner);
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < BOOKINGS; i++) {
+            fixtures.booking(spot, renter, start.plusHours(i), start.plusHours(i + 1), "confirmed");
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20, 50})
+    void adminListingUsesSameStatementCountForAnyPageSize(int pageSize) {
+        Page<BookingResponseDto> page = bookingRepo.findAllDtos(
+                PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "bookedAt")));
+
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(BOOKINGS);
+        // One select for the page, one for the count
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics().getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void ownerAndRenterListingsUseOneStatementEach() {
+        List<BookingResponseDto> byOwner = bookingRepo.findDtosByOwner(owner.getUserId());
+        assertThat(byOwner).hasSize(BOOKINGS);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+
+        List<BookingResponseDto> byRenter = bookingRepo.findDtosByRenter(renter.getUserId());
+        assertThat(byRenter).hasSize(BOOKINGS);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+
+        BookingResponseDto first = byOwner.get(0);
+        assertThat(first.getOwnerId()).isEqualTo(owner.getUserId());
+        assertThat(first.getRenterId()).isEqualTo(renter.getUserId());
+        assertThat(first.getStartTime()).isNotNull();
+        assertThat(statistics().getEntityLoadCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
@@ -0,0 +1,112 @@
+package com.gazi.ParkUs.repositories;
+
+import com.gazi.ParkUs.TestFixtures;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class SpotAvailabilityRepositoryTest {
+
+    @Autowired
+    private SpotAvailabilityRepository availabilityRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TestFixtures fixtures;
+    private RegularUser owner;
+    private RegularUser other;
+    private LocalDateTime nine;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seedUsers() {
+        fixtures = new TestFixtures(entityManager);
+        owner = fixtures.owner();
+        other = fixtures.renter();
+        now = LocalDateTime.now().withNano(0);
+        nine = now.plusDays(1).withHour(9).withMinute(0).withSecond(0);
+    }
+
+    @Test
+    void searchFindsWindowCoveredByBackToBackHourlySlots() {
+        ParkingSpot spot = spotWithHourlySlots(9, 10, 11);
+
+        assertThat(search(spot, nine, nine.plusHours(3))).containsExactly(spot.getSpotId());
+        // Window edges inside the first and last slot
+        assertThat(search(spot, nine.plusMinutes(30), nine.plusMinutes(150))).containsExactly(spot.getSpotId());
+        assertThat(search(spot, nine.plusHours(1), nine.plusHours(2))).containsExactly(spot.getSpotId());
+    }
+
+    @Test
+    void searchSkipsWindowWithGapOrUncoveredEdge() {
+        ParkingSpot gap = spotWithHourlySlots(9, 11);
+        ParkingSpot shortSpot = spotWithHourlySlots(9, 10);
+
+        assertThat(search(gap, nine, nine.plusHours(3))).isEmpty();
+        assertThat(search(shortSpot, nine, nine.plusHours(3))).isEmpty();
+        assertThat(search(shortSpot, nine.minusMinutes(30), nine.plusHours(2))).isEmpty();
+    }
+
+    @Test
+    void searchSkipsWindowWithBookedOrHeldSlot() {
+        ParkingSpot booked = spotWithHourlySlots(9, 10, 11);
+        ParkingSpot held = spotWithHourlySlots(9, 10, 11);
+        ParkingSpot lapsed = spotWithHourlySlots(9, 10, 11);
+
+        slotAt(booked, 10).setIsBooked(true);
+        slotAt(held, 10).setHeldBy(other.getUserId());
+        slotAt(held, 10).setHoldExpiresAt(now.plusMinutes(5));
+        slotAt(lapsed, 10).setHeldBy(other.getUserId());
+        slotAt(lapsed, 10).setHoldExpiresAt(now.minusMinutes(1));
+        entityManager.flush();
+
+        List<Long> free = availabilityRepo.findSpotIdsFreeBetween(
+                List.of(booked.getSpotId(), held.getSpotId(), lapsed.getSpotId()), nine, nine.plusHours(3), now);
+        assertThat(free).containsExactly(lapsed.getSpotId());
+    }
+
+    @Test
+    void activeHoldsExcludeLapsedAndUnheldSlots() {
+        ParkingSpot spot = spotWithHourlySlots(9, 10, 11);
+        slotAt(spot, 9).setHeldBy(other.getUserId());
+        slotAt(spot, 9).setHoldExpiresAt(now.plusMinutes(5));
+        slotAt(spot, 10).setHeldBy(other.getUserId());
+        slotAt(spot, 10).setHoldExpiresAt(now.minusMinutes(1));
+        entityManager.flush();
+
+        assertThat(availabilityRepo.findActiveHolds(now))
+                .extracting(SpotAvailability::getAvailabilityId)
+                .containsExactly(slotAt(spot, 9).getAvailabilityId());
+    }
+
+    private List<Long> search(ParkingSpot spot, LocalDateTime from, LocalDateTime to) {
+        return availabilityRepo.findSpotIdsFreeBetween(List.of(spot.getSpotId()), from, to, now);
+    }
+
+    private ParkingSpot spotWithHourlySlots(int... hours) {
+        return fixtures.spotWithHourlySlots(owner, nine, hours);
+    }
+
+    private SpotAvailability slotAt(ParkingSpot spot, int hour) {
+        return availabilityRepo.findBySpot_SpotId(spot.getSpotId()).stream()
+                .filter(a -> a.getStartTime().getHour() == hour)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,185 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.TestFixtures;
+import com.gazi.ParkUs.entities.Booking;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import com.gazi.ParkUs.repositories.BookingRepository;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class BookingExpirySchedulerTest {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private SpotAvailabilityRepository availabilityRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final BookingLogWriter bookingLogWriter = mock(BookingLogWriter.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+
+    private TestFixtures fixtures;
+    private RegularUser renter;
+    private ParkingSpot spot;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void seedSpot() {
+        fixtures = new TestFixtures(entityManager);
+        renter = fixtures.renter();
+        spot = fixtures.spot(fixtures.owner());
+        now = LocalDateTime.now().withNano(0);
+    }
+
+    @Test
+    void completesOnlyConfirmedBookingsThatHaveEnded() {
+        Booking ended = booking(now.minusHours(3), now.minusHours(2), "confirmed");
+        Booking running = booking(now.minusHours(1), now.plusHours(1), "confirmed");
+        Booking cancelled = booking(now.minusHours(5), now.minusHours(4), "cancelled");
+        entityManager.flush();
+
+        BookingExpiryScheduler scheduler = scheduler(true);
+        scheduler.run();
+        entityManager.clear();
+
+        assertThat(statusOf(ended)).isEqualTo("completed");
+        assertThat(statusOf(running)).isEqualTo("confirmed");
+        assertThat(statusOf(cancelled)).isEqualTo("cancelled");
+        assertThat(scheduler.stats().completed()).isEqualTo(1);
+        assertThat(scheduler.stats().queuedBookings()).isEqualTo(1);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BookingChangedEvent>> logged = ArgumentCaptor.forClass(List.class);
+        verify(bookingLogWriter).writeAll(logged.capture());
+        assertThat(logged.getValue()).singleElement().satisfies(entry -> {
+            assertThat(entry.bookingId()).isEqualTo(ended.getBookingId());
+            assertThat(entry.status()).isEqualTo("completed");
+            assertThat(entry.endTime()).isEqualTo(now.minusHours(2));
+        });
+    }
+
+    @Test
+    void closesStartedSlotsThatWereNeverBooked() {
+        SpotAvailability stale = slot(now.minusHours(2), now.minusHours(1), false);
+        SpotAvailability upcoming = slot(now.plusMinutes(30), now.plusHours(2), false);
+        // A cancelled booking still points at this one, so its history is kept
+        Booking cancelled = booking(now.minusHours(4), now.minusHours(3), "cancelled");
+        cancelled.getAvailability().setIsBooked(false);
+        entityManager.flush();
+
+        BookingExpiryScheduler scheduler = scheduler(true);
+        scheduler.run();
+        entityManager.clear();
+
+        assertThat(availabilityRepo.findById(stale.getAvailabilityId())).isEmpty();
+        assertThat(availabilityRepo.findById(upcoming.getAvailabilityId())).isPresent();
+        assertThat(availabilityRepo.findById(cancelled.getAvailability().getAvailabilityId())).isPresent();
+        assertThat(scheduler.stats().closedSlots()).isEqualTo(1);
+
+        ArgumentCaptor<AvailabilityChangedEvent> published = ArgumentCaptor.forClass(AvailabilityChangedEvent.class);
+        verify(events).publishEvent(published.capture());
+        assertThat(published.getValue().type()).isEqualTo(AvailabilityChangedEvent.Type.DELETED);
+        assertThat(published.getValue().availabilityId()).isEqualTo(stale.getAvailabilityId());
+    }
+
+    @Test
+    void leavesStaleSlotsAloneWhenClosingIsDisabled() {
+        SpotAvailability stale = slot(now.minusHours(2), now.minusHours(1), false);
+        entityManager.flush();
+
+        scheduler(false).run();
+        entityManager.clear();
+
+        assertThat(availabilityRepo.findById(stale.getAvailabilityId())).isPresent();
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void bookingConfirmedInsideThePrimedRangeArrivesThroughItsEvent() {
+        BookingExpiryScheduler scheduler = scheduler(true);
+        scheduler.run(); // primes an empty hour ahead
+
+        Booking ended = booking(now.minusHours(2), now.minusHours(1), "confirmed");
+        entityManager.flush();
+        scheduler.run();
+        assertThat(scheduler.stats().completed()).isZero();
+
+        scheduler.onBookingChanged(BookingChangedEvent.of(ended));
+        scheduler.run();
+        entityManager.clear();
+
+        assertThat(statusOf(ended)).isEqualTo("completed");
+        assertThat(scheduler.stats().completed()).isEqualTo(1);
+    }
+
+    @Test
+    void itemOfferedToAFullHeapIsReloadedOnceThereIsRoom() {
+        BookingExpiryScheduler scheduler = scheduler(true, 1);
+        scheduler.run(); // primes an empty hour ahead
+
+        Booking first = booking(now.minusHours(3), now.minusHours(2), "confirmed");
+        Booking second = booking(now.minusHours(2), now.minusHours(1), "confirmed");
+        entityManager.flush();
+        scheduler.onBookingChanged(BookingChangedEvent.of(first));
+        scheduler.onBookingChanged(BookingChangedEvent.of(second)); // heap already holds max-queued items
+
+        scheduler.run();
+        entityManager.clear();
+
+        assertThat(statusOf(first)).isEqualTo("completed");
+        assertThat(statusOf(second)).isEqualTo("completed");
+        assertThat(scheduler.stats().completed()).isEqualTo(2);
+    }
+
+    private BookingExpiryScheduler scheduler(boolean closeStaleSlots) {
+        return scheduler(closeStaleSlots, 50_000);
+    }
+
+    private BookingExpiryScheduler scheduler(boolean closeStaleSlots, int maxQueued) {
+        return new BookingExpiryScheduler(bookingRepo, availabilityRepo, bookingLogWriter, events,
+                transactionManager, 3_600_000, 500, maxQueued, closeStaleSlots);
+    }
+
+    private String statusOf(Booking booking) {
+        return bookingRepo.findById(booking.getBookingId()).orElseThrow().getStatus();
+    }
+
+    private Booking booking(LocalDateTime start, LocalDateTime end, String status) {
+        return fixtures.booking(spot, renter, start, end, status);
+    }
+
+    private SpotAvailability slot(LocalDateTime start, LocalDateTime end, boolean booked) {
+        return fixtures.slot(spot, start, end, booked);
+    }
+}
@@ -0,0 +1,127 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class BookingLogWriterTest {
+
+    private final SpotDailyRollups rollups = mock(SpotDailyRollups.class);
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+
+    private BookingLogWriter writer;
+
+    @BeforeEach
+    void startWriter() {
+        // Stands in for the database: fails while failuresLeft > 0, then accepts batches
+        doAnswer(invocation -> {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new DataAccessResourceFailureException("database down");
+            }
+            List<?> entries = invocation.getArgument(0);
+            written.addAndGet(entries.size());
+            return null;
+        }).when(rollups).recordBatch(anyList(), any());
+
+        writer = writer(100);
+    }
+
+    @AfterEach
+    void stopWriter() throws InterruptedException {
+        writer.stop();
+    }
+
+    @Test
+    void failedBatchIsRetriedUntilWritten() throws InterruptedException {
+        failuresLeft.set(5);
+
+        writer.onBookingChanged(entry(1L));
+        awaitWritten(1);
+
+        BookingLogWriter.Stats stats = writer.stats();
+        assertThat(stats.written()).isEqualTo(1);
+        assertThat(stats.failedFlushes()).isEqualTo(5);
+        assertThat(stats.awaitingRetry()).isZero();
+        assertThat(stats.degraded()).isFalse();
+    }
+
+    @Test
+    void entriesBeyondTheQueueWaitForTheDatabaseInsteadOfBeingDropped() throws InterruptedException {
+        failuresLeft.set(8);
+
+        for (long id = 1; id <= 20; id++) {
+            writer.onBookingChanged(entry(id));
+        }
+        writer.writeAll(List.of(entry(21L), entry(22L)));
+        awaitWritten(22);
+
+        assertThat(writer.stats().written()).isEqualTo(22);
+        assertThat(writer.stats().awaitingRetry()).isZero();
+    }
+
+    @Test
+    void stopDrainsEntriesThatFailedFirst() throws InterruptedException {
+        failuresLeft.set(2);
+
+        writer.onBookingChanged(entry(1L));
+        writer.onBookingChanged(entry(2L));
+        writer.stop();
+
+        assertThat(written.get()).isEqualTo(2);
+    }
+
+    @Test
+    void fullOverflowRejectsInsteadOfGrowingWithoutBound() throws InterruptedException {
+        writer.stop();
+        writer = writer(2);
+        failuresLeft.set(Integer.MAX_VALUE);
+
+        for (long id = 1; id <= 30; id++) {
+            writer.onBookingChanged(entry(id));
+        }
+        BookingLogWriter.Stats stats = writer.stats();
+        assertThat(stats.rejected()).isPositive();
+        // Queue, overflow and the one batch in hand
+        assertThat(stats.queueDepth() + stats.awaitingRetry()).isLessThanOrEqualTo(2 + 2 + 10);
+
+        failuresLeft.set(0);
+        awaitWritten(30 - (int) stats.rejected());
+        assertThat(writer.stats().rejected()).isEqualTo(stats.rejected());
+    }
+
+    private BookingLogWriter writer(int overflowCapacity) {
+        BookingLogWriter started = new BookingLogWriter(mock(JdbcTemplate.class), rollups, 2, overflowCapacity, 20,
+                10, 10, 40, 5000);
+        started.start();
+        return started;
+    }
+
+    private void awaitWritten(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.get() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(written.get()).isEqualTo(expected);
+    }
+
+    private static BookingChangedEvent entry(Long bookingId) {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 9, 0);
+        return new BookingChangedEvent(bookingId, 1L, 2L, 3L, 4L, start, start.plusHours(1),
+                new BigDecimal("10.00"), "confirmed", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,85 @@
+package com.gazi.ParkUs.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingEngineTest {
+
+    private static final BigDecimal RATE = new BigDecimal("12.00");
+
+    // 2026-03-02 is a Monday, 2026-03-07 a Saturday
+    private final PricingEngine engine = engine("07:00-10:00,16:00-19:00");
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource({
+            // partial hours off and inside peak
+            "2026-03-02T11:00, 2026-03-02T12:20,   80,   0,  16.00",
+            "2026-03-02T08:00, 2026-03-02T08:45,   45,  45,  13.50",
+            // crossing a peak boundary, and spanning both windows
+            "2026-03-02T09:30, 2026-03-02T10:30,   60,  30,  15.00",
+            "2026-03-02T06:00, 2026-03-02T20:00,  840, 360, 204.00",
+            // across midnight into the next morning's peak
+            "2026-03-02T22:00, 2026-03-03T08:00,  600,  60, 126.00",
+            // Friday evening to Monday morning: the weekend has no peak
+            "2026-03-06T18:00, 2026-03-09T08:00, 3720, 120, 756.00",
+            // a peak hour on a non-peak day
+            "2026-03-07T08:00, 2026-03-07T09:00,   60,   0,  12.00"
+    })
+    void quotesMinutesAtPeakAndOffPeakRates(LocalDateTime start, LocalDateTime end, long minutes,
+                                            long peakMinutes, BigDecimal total) {
+        PricingEngine.Quote quote = engine.quote(RATE, start, end);
+
+        assertThat(quote.pricePerHour()).isEqualByComparingTo(RATE);
+        assertThat(quote.minutes()).isEqualTo(minutes);
+        assertThat(quote.peakMinutes()).isEqualTo(peakMinutes);
+        assertThat(quote.total()).isEqualTo(total);
+    }
+
+    @Test
+    void totalIsRoundedHalfUpToCents() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+        assertThat(engine.quote(new BigDecimal("10.00"), start, start.plusMinutes(1)).total())
+                .isEqualTo(new BigDecimal("0.17"));
+        assertThat(engine.quote(new BigDecimal("12.50"), start, start.plusMinutes(7)).total())
+                .isEqualTo(new BigDecimal("1.46"));
+    }
+
+    @Test
+    void emptyOrReversedWindowCostsNothing() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+        PricingEngine.Quote quote = engine.quote(RATE, start, start.minusHours(1));
+
+        assertThat(quote.minutes()).isZero();
+        assertThat(quote.peakMinutes()).isZero();
+        assertThat(quote.total()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void durationIsFractionalHoursToTheMinute() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 2, 22, 15);
+
+        assertThat(PricingEngine.durationHours(start, start.plusMinutes(90))).isEqualTo(new BigDecimal("1.50"));
+        assertThat(PricingEngine.durationHours(start, start.plusMinutes(20))).isEqualTo(new BigDecimal("0.33"));
+    }
+
+    @Test
+    void rejectsMalformedOrOverlappingPeakWindows() {
+        assertThatThrownBy(() -> engine("07:00")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> engine("10:00-09:00")).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> engine("07:00-10:00,09:00-11:00")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static PricingEngine engine(String peakWindows) {
+        return new PricingEngine(null, peakWindows, "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY",
+                new BigDecimal("1.5"), BigDecimal.ONE);
+    }
+}
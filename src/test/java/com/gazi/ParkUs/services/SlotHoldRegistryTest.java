@@ -0,0 +1,101 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.AvailabilityChangedEvent;
+import com.gazi.ParkUs.events.SlotHoldEvent;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class SlotHoldRegistryTest {
+
+    private static final Long SLOT = 11L;
+    private static final Long SPOT = 5L;
+    private static final Long HOLDER = 1L;
+    private static final Long OTHER = 2L;
+
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final LocalDateTime slotStart = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void onlyTheHolderHoldsTheSlot() {
+        SlotHoldRegistry registry = registry(5000);
+
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(5)));
+
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isTrue();
+        assertThat(registry.isHeldBy(SLOT, OTHER)).isFalse();
+        assertThat(registry.stats().active()).isEqualTo(1);
+    }
+
+    @Test
+    void releasingOrBookingTheSlotDropsTheHold() {
+        SlotHoldRegistry registry = registry(5000);
+
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(5)));
+        registry.onSlotHold(new SlotHoldEvent(SlotHoldEvent.Type.RELEASED, SLOT, SPOT, HOLDER,
+                slotStart, slotStart.plusHours(1), null));
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isFalse();
+
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(5)));
+        registry.onAvailabilityChanged(new AvailabilityChangedEvent(AvailabilityChangedEvent.Type.BOOKED,
+                SLOT, SPOT, slotStart, slotStart.plusHours(1)));
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isFalse();
+        assertThat(registry.stats().active()).isZero();
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void lapsedHoldIsReleasedOnTheTickAfterItsSecond() throws InterruptedException {
+        SlotHoldRegistry registry = registry(1000);
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(1)));
+
+        registry.tick();
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isTrue();
+
+        Thread.sleep(2100);
+        registry.tick();
+
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isFalse();
+        assertThat(registry.stats().active()).isZero();
+        assertThat(registry.stats().expired()).isEqualTo(1);
+        verify(events).publishEvent(new AvailabilityChangedEvent(AvailabilityChangedEvent.Type.RELEASED,
+                SLOT, SPOT, slotStart, slotStart.plusHours(1)));
+    }
+
+    @Test
+    void extendedHoldOutlivesItsOriginalBucket() throws InterruptedException {
+        SlotHoldRegistry registry = registry(5000);
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(1)));
+        registry.onSlotHold(held(LocalDateTime.now().plusSeconds(5)));
+
+        Thread.sleep(2100);
+        registry.tick();
+
+        assertThat(registry.isHeldBy(SLOT, HOLDER)).isTrue();
+        assertThat(registry.stats().expired()).isZero();
+        verify(events, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void rejectsTtlShorterThanOneBucket() {
+        assertThatThrownBy(() -> registry(500)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private SlotHoldRegistry registry(long ttlMillis) {
+        return new SlotHoldRegistry(mock(SpotAvailabilityRepository.class), events, ttlMillis);
+    }
+
+    private SlotHoldEvent held(LocalDateTime expiresAt) {
+        return new SlotHoldEvent(SlotHoldEvent.Type.HELD, SLOT, SPOT, HOLDER, slotStart, slotStart.plusHours(1),
+                expiresAt);
+    }
+}
@@ -0,0 +1,140 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.events.BookingChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Not transactional: batches commit in their own transactions, so each test
+ * cleans up the rows of its spot instead of rolling back.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class SpotDailyRollupsTest {
+
+    private static final long SPOT_ID = 7001L;
+    private static final long OWNER_ID = 7002L;
+    private static final long RENTER_ID = 7003L;
+
+    @Autowired
+    private SpotDailyRollups rollups;
+
+    @Autowired
+    private BookingLogWriter bookingLogWriter;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final LocalDateTime tenPm = LocalDate.now().plusDays(1).atTime(22, 0);
+
+    @BeforeEach
+    @AfterEach
+    void deleteSpotRows() {
+        jdbc.update("DELETE FROM bookinglog WHERE spot_id = ?", SPOT_ID);
+        jdbc.update("DELETE FROM spotdailyrollup WHERE spot_id = ?", SPOT_ID);
+    }
+
+    @Test
+    void stayAcrossMidnightSplitsHoursByDay() {
+        bookingLogWriter.writeAll(List.of(entry(1L, tenPm, tenPm.plusHours(4), "40.00", "confirmed")));
+
+        Map<String, Object> first = rollupOn(tenPm.toLocalDate());
+        assertThat((BigDecimal) first.get("booked_hours")).isEqualByComparingTo("2.00");
+        assertThat((BigDecimal) first.get("revenue")).isEqualByComparingTo("40.00");
+        assertThat(first.get("bookings")).isEqualTo(1);
+
+        Map<String, Object> second = rollupOn(tenPm.toLocalDate().plusDays(1));
+        assertThat((BigDecimal) second.get("booked_hours")).isEqualByComparingTo("2.00");
+        assertThat((BigDecimal) second.get("revenue")).isEqualByComparingTo("0.00");
+        assertThat(second.get("bookings")).isEqualTo(0);
+    }
+
+    @Test
+    void rebuildOfRangeStartingMidStayKeepsOnlyItsHoursInRange() {
+        bookingLogWriter.writeAll(List.of(entry(1L, tenPm, tenPm.plusHours(4), "40.00", "confirmed")));
+        LocalDate nextDay = tenPm.toLocalDate().plusDays(1);
+
+        assertThat(rollups.rebuild(nextDay, nextDay)).isEqualTo(1);
+
+        assertThat((BigDecimal) rollupOn(nextDay).get("booked_hours")).isEqualByComparingTo("2.00");
+        assertThat((BigDecimal) rollupOn(tenPm.toLocalDate()).get("booked_hours")).isEqualByComparingTo("2.00");
+    }
+
+    @Test
+    void bookingLoggedBeforeRollupsIsBackfilledSoLaterChangesStayNonNegative() {
+        // Logged before rollups existed: there is a log row but no rollup to subtract from
+        LocalDateTime start = tenPm.minusHours(12);
+        jdbc.update("""
+                INSERT INTO bookinglog (booking_id, spot_id, owner_id, renter_id, start_time, end_time,
+                                        duration_hours, total_amount, booking_status, logged_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, 2L, SPOT_ID, OWNER_ID, RENTER_ID, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)),
+                new BigDecimal("2.00"), new BigDecimal("20.00"), "confirmed",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(1)));
+
+        rollups.rebuildRetained();
+        bookingLogWriter.writeAll(List.of(entry(2L, start, start.plusHours(2), "20.00", "cancelled")));
+
+        Map<String, Object> rollup = rollupOn(start.toLocalDate());
+        assertThat((BigDecimal) rollup.get("booked_hours")).isEqualByComparingTo("0.00");
+        assertThat((BigDecimal) rollup.get("revenue")).isEqualByComparingTo("0.00");
+        assertThat(rollup.get("bookings")).isEqualTo(0);
+        assertThat(rollup.get("cancellations")).isEqualTo(1);
+    }
+
+    @Test
+    void batchWrittenFromAfterCommitListenerIsCommitted() throws InterruptedException {
+        // Stopped writer: entries are written on the caller's thread, as when the queue is full
+        BookingLogWriter stopped = new BookingLogWriter(jdbc, rollups, 10, 10, 100, 10, 10, 40, 1000);
+        stopped.start();
+        stopped.stop();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        stopped.onBookingChanged(entry(3L, tenPm, tenPm.plusHours(1), "10.00", "confirmed"));
+                    }
+                }));
+
+        assertThat(stopped.stats().written()).isEqualTo(1);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM bookinglog WHERE spot_id = ? AND booking_id = 3",
+                Integer.class, SPOT_ID)).isEqualTo(1);
+        assertThat((BigDecimal) rollupOn(tenPm.toLocalDate()).get("revenue")).isEqualByComparingTo("10.00");
+    }
+
+    private Map<String, Object> rollupOn(LocalDate day) {
+        return jdbc.queryForMap(
+                "SELECT booked_hours, revenue, bookings, cancellations FROM spotdailyrollup"
+                        + " WHERE spot_id = ? AND rollup_date = ?",
+                SPOT_ID, Date.valueOf(day));
+    }
+
+    private static BookingChangedEvent entry(Long bookingId, LocalDateTime start, LocalDateTime end,
+                                             String amount, String status) {
+        return new BookingChangedEvent(bookingId, SPOT_ID, OWNER_ID, RENTER_ID, 1L, start, end,
+                new BigDecimal(amount), status, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,235 @@
+package com.gazi.ParkUs.services;
+
+import com.gazi.ParkUs.TestFixtures;
+import com.gazi.ParkUs.User.UserRole;
+import com.gazi.ParkUs.dto.BookingRequestDto;
+import com.gazi.ParkUs.dto.BookingResponseDto;
+import com.gazi.ParkUs.dto.WindowBookingRequestDto;
+import com.gazi.ParkUs.entities.Booking;
+import com.gazi.ParkUs.entities.ParkingSpot;
+import com.gazi.ParkUs.entities.RegularUser;
+import com.gazi.ParkUs.entities.SpotAvailability;
+import com.gazi.ParkUs.exceptions.BookingConflictException;
+import com.gazi.ParkUs.exceptions.InvalidRequestException;
+import com.gazi.ParkUs.repositories.BookingRepository;
+import com.gazi.ParkUs.repositories.SpotAvailabilityRepository;
+import com.gazi.ParkUs.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class WindowBookingTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private SpotAvailabilityRepository availabilityRepo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private TestFixtures fixtures;
+    private RegularUser owner;
+    private RegularUser renter;
+    private RegularUser other;
+    private LocalDateTime noon;
+
+    @BeforeEach
+    void seedUsers() {
+        fixtures = new TestFixtures(entityManager);
+        owner = fixtures.owner();
+        renter = fixtures.renter();
+        other = fixtures.user("Omar", "Other", "other@example.com");
+        noon = LocalDateTime.now().plusDays(1).withHour(12).withMinute(0).withSecond(0).withNano(0);
+
+        AuthenticatedUser principal = new AuthenticatedUser(renter.getUserId(), renter.getEmail(), "",
+                UserRole.ROLE_USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void clearPrincipal() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void windowBooksEveryCoveredSlotAndKeepsThemApart() {
+        ParkingSpot spot = spotWithHourlySlots(12, 13, 14);
+
+        BookingResponseDto booking = book(spot, noon, noon.plusHours(3));
+
+        assertThat(booking.getStartTime()).isEqualTo(noon);
+        assertThat(booking.getEndTime()).isEqualTo(noon.plusHours(3));
+        assertThat(booking.getTotalAmount()).isEqualByComparingTo("30.00");
+        assertThat(slots(spot))
+                .extracting(SpotAvailability::getStartTime, SpotAvailability::getEndTime, SpotAvailability::getIsBooked)
+                .containsExactly(
+                        tuple(noon, noon.plusHours(1), true),
+                        tuple(noon.plusHours(1), noon.plusHours(2), true),
+                        tuple(noon.plusHours(2), noon.plusHours(3), true));
+    }
+
+    @Test
+    void edgeSlotsAreSplitAtTheWindowBounds() {
+        ParkingSpot spot = spotWithHourlySlots(12, 13, 14);
+
+        BookingResponseDto booking = book(spot, noon.plusMinutes(30), noon.plusMinutes(150));
+
+        assertThat(booking.getTotalAmount()).isEqualByComparingTo("20.00");
+        assertThat(slots(spot))
+                .extracting(SpotAvailability::getStartTime, SpotAvailability::getEndTime, SpotAvailability::getIsBooked)
+                .containsExactly(
+                        tuple(noon, noon.plusMinutes(30), false),
+                        tuple(noon.plusMinutes(30), noon.plusHours(1), true),
+                        tuple(noon.plusHours(1), noon.plusHours(2), true),
+                        tuple(noon.plusHours(2), noon.plusMinutes(150), true),
+                        tuple(noon.plusMinutes(150), noon.plusHours(3), false));
+    }
+
+    @Test
+    void windowInsideOneSlotLeavesBothEndsFree() {
+        ParkingSpot spot = spotWithSlot(noon, noon.plusHours(3));
+
+        book(spot, noon.plusHours(1), noon.plusHours(2));
+
+        assertThat(slots(spot))
+                .extracting(SpotAvailability::getStartTime, SpotAvailability::getEndTime, SpotAvailability::getIsBooked)
+                .containsExactly(
+                        tuple(noon, noon.plusHours(1), false),
+                        tuple(noon.plusHours(1), noon.plusHours(2), true),
+                        tuple(noon.plusHours(2), noon.plusHours(3), false));
+    }
+
+    @Test
+    void windowWithGapOrUncoveredEdgeIsRejected() {
+        ParkingSpot gap = spotWithHourlySlots(12, 14);
+        ParkingSpot shortSpot = spotWithHourlySlots(12, 13);
+
+        assertThatThrownBy(() -> book(gap, noon, noon.plusHours(3)))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> book(shortSpot, noon, noon.plusHours(3)))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(slots(gap)).noneMatch(SpotAvailability::getIsBooked);
+        assertThat(slots(shortSpot)).noneMatch(SpotAvailability::getIsBooked);
+    }
+
+    @Test
+    void windowOverBookedOrForeignHeldSlotConflicts() {
+        ParkingSpot booked = spotWithHourlySlots(12, 13, 14);
+        ParkingSpot held = spotWithHourlySlots(12, 13, 14);
+        slots(booked).get(1).setIsBooked(true);
+        slots(held).get(1).setHeldBy(other.getUserId());
+        slots(held).get(1).setHoldExpiresAt(LocalDateTime.now().plusMinutes(5));
+        entityManager.flush();
+
+        assertThatThrownBy(() -> book(booked, noon, noon.plusHours(3)))
+                .isInstanceOf(BookingConflictException.class);
+        assertThatThrownBy(() -> book(held, noon, noon.plusHours(3)))
+                .isInstanceOf(BookingConflictException.class);
+        assertThat(slots(held)).noneMatch(SpotAvailability::getIsBooked);
+    }
+
+    @Test
+    void cancellingFreesEveryCoveredSlotAndKeepsTheBookedWindow() {
+        ParkingSpot spot = spotWithHourlySlots(12, 13, 14);
+        BookingResponseDto booking = book(spot, noon, noon.plusHours(3));
+
+        bookingService.deleteBooking(booking.getBookingId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(slots(spot)).hasSize(3).noneMatch(SpotAvailability::getIsBooked);
+        Booking cancelled = bookingRepo.findById(booking.getBookingId()).orElseThrow();
+        assertThat(cancelled.getStatus()).isEqualTo("cancelled");
+        assertThat(cancelled.getStartTime()).isEqualTo(noon);
+        assertThat(cancelled.getEndTime()).isEqualTo(noon.plusHours(3));
+
+        // The freed slots are bookable again without touching the cancelled booking
+        BookingResponseDto rebooked = book(spot, noon.plusHours(1), noon.plusHours(2));
+        assertThat(bookingRepo.findDtoById(booking.getBookingId()).orElseThrow().getEndTime())
+                .isEqualTo(noon.plusHours(3));
+        assertThat(rebooked.getStartTime()).isEqualTo(noon.plusHours(1));
+    }
+
+    @Test
+    void adminMoveFreesTheWholeWindowButRefusesCancelledBookings() {
+        ParkingSpot spot = spotWithHourlySlots(12, 13, 14, 15);
+        BookingResponseDto booking = book(spot, noon, noon.plusHours(3));
+        SpotAvailability target = slots(spot).get(3);
+
+        BookingResponseDto moved = adminService.updateBooking(booking.getBookingId(),
+                move(target.getAvailabilityId()));
+        entityManager.flush();
+
+        assertThat(moved.getStartTime()).isEqualTo(noon.plusHours(3));
+        assertThat(slots(spot)).extracting(SpotAvailability::getIsBooked).containsExactly(false, false, false, true);
+
+        bookingService.deleteBooking(booking.getBookingId());
+        entityManager.flush();
+        Long free = slots(spot).get(0).getAvailabilityId();
+        assertThatThrownBy(() -> adminService.updateBooking(booking.getBookingId(), move(free)))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(slots(spot)).noneMatch(SpotAvailability::getIsBooked);
+    }
+
+    private BookingRequestDto move(Long availabilityId) {
+        BookingRequestDto dto = new BookingRequestDto();
+        dto.setAvailabilityId(availabilityId);
+        dto.setRenterId(renter.getUserId());
+        return dto;
+    }
+
+    private BookingResponseDto book(ParkingSpot spot, LocalDateTime start, LocalDateTime end) {
+        WindowBookingRequestDto dto = new WindowBookingRequestDto();
+        dto.setSpotId(spot.getSpotId());
+        dto.setRenterId(renter.getUserId());
+        dto.setStartTime(start);
+        dto.setEndTime(end);
+        BookingResponseDto booking = bookingService.createWindowBooking(dto);
+        entityManager.flush();
+        return booking;
+    }
+
+    private List<SpotAvailability> slots(ParkingSpot spot) {
+        return availabilityRepo.findBySpot_SpotId(spot.getSpotId()).stream()
+                .sorted(Comparator.comparing(SpotAvailability::getStartTime))
+                .toList();
+    }
+
+    private ParkingSpot spotWithHourlySlots(int... hours) {
+        return fixtures.spotWithHourlySlots(owner, noon, hours);
+    }
+
+    private ParkingSpot spotWithSlot(LocalDateTime start, LocalDateTime end) {
+        ParkingSpot spot = fixtures.spot(owner);
+        fixtures.slot(spot, start, end, false);
+        entityManager.flush();
+        return spot;
+    }
+}